@@ -0,0 +1,93 @@
+package com.example.seatingsystem.benchmark;
+
+import com.example.seatingsystem.config.CompactSeatingMessageConverter;
+import com.example.seatingsystem.model.SeatingCandidate;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.service.impl.SeatingArrangementServiceImpl;
+import com.example.seatingsystem.service.pdf.CountingOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排座生成、快照 JSON 往返（普通 / 紧凑格式）、PDF 渲染的基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrangementBenchmark {
+
+    @Param({"40", "400", "4000"})
+    private int rosterSize;
+
+    private SeatingArrangementServiceImpl service;
+    private ObjectMapper objectMapper;
+    private SeatingResult arrangement;
+    private CompactSeatingMessageConverter compactConverter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        compactConverter = new CompactSeatingMessageConverter(objectMapper);
+
+        // 先生成一份排座作为“最新记录”的快照，供 PDF 导出读取
+        SeatingArrangementServiceImpl generator = BenchmarkFixtures.arrangementService(
+                BenchmarkFixtures.classroom(rosterSize), BenchmarkFixtures.students(rosterSize), null, objectMapper);
+        arrangement = generator.randomArrange(BenchmarkFixtures.CLASS_ID);
+
+        service = BenchmarkFixtures.arrangementService(
+                BenchmarkFixtures.classroom(rosterSize), BenchmarkFixtures.students(rosterSize),
+                objectMapper.writeValueAsString(arrangement), objectMapper);
+    }
+
+    @Benchmark
+    public SeatingResult randomArrange() {
+        return service.randomArrange(BenchmarkFixtures.CLASS_ID);
+    }
+
+    // 对比基准：10 个并行候选方案 vs. 两次 randomArrange
+    @Benchmark
+    public List<SeatingCandidate> tenCandidates() {
+        return service.generateCandidates(BenchmarkFixtures.CLASS_ID, 10);
+    }
+
+    @Benchmark
+    public SeatingResult snapshotRoundTrip() throws Exception {
+        String json = objectMapper.writeValueAsString(arrangement);
+        return objectMapper.readValue(json, SeatingResult.class);
+    }
+
+    // 对比基准：紧凑格式的写出 + 读取，与 snapshotRoundTrip 比较
+    @Benchmark
+    public SeatingResult compactRoundTrip() throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        compactConverter.write(arrangement, SeatingResult.class, CompactSeatingMessageConverter.MEDIA_TYPE, out);
+        return (SeatingResult) compactConverter.read(SeatingResult.class, null, new MockHttpInputMessage(out.getBodyAsBytes()));
+    }
+
+    @Benchmark
+    public long exportPdf() throws Exception {
+        CountingOutputStream out = new CountingOutputStream(OutputStream.nullOutputStream());
+        service.exportSeatingToPdf(BenchmarkFixtures.CLASS_ID, out);
+        return out.getCount();
+    }
+}
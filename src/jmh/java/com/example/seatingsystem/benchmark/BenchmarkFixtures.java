@@ -0,0 +1,144 @@
+package com.example.seatingsystem.benchmark;
+
+import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.repository.ClassroomRepository;
+import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.repository.SeatingSnapshotRepository;
+import com.example.seatingsystem.repository.StudentGroupRepository;
+import com.example.seatingsystem.service.SeatStatService;
+import com.example.seatingsystem.service.StudentService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.metrics.SeatingMetrics;
+import com.example.seatingsystem.service.impl.SeatingArrangementServiceImpl;
+import com.example.seatingsystem.service.optimizer.SeatingOptimizer;
+import com.example.seatingsystem.service.pdf.SeatingPdfFonts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 基准测试共用的合成数据与服务装配：仓库全部使用 Mockito 桩（stubOnly，不记录调用），无需数据库
+ */
+final class BenchmarkFixtures {
+
+    static final Long CLASS_ID = 1L;
+
+    private static final String SURNAMES = "赵钱孙李周吴郑王冯陈褚卫蒋沈韩杨朱秦尤许何吕施张孔曹严华金魏陶姜";
+    private static final String GIVEN_NAMES = "伟芳娜敏静丽强磊军洋勇艳杰娟涛明超秀霞平刚桂英华玉兰萍红鹏飞宇轩";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * 生成 count 名活跃学生，学号、姓名、性别确定（同样的 count 每次结果相同）
+     */
+    static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            student.setId((long) (i + 1));
+            student.setClassId(CLASS_ID);
+            student.setStudentNo(String.format("S%05d", i + 1));
+            student.setName(name(i));
+            student.setGender(i % 2 == 0 ? "男" : "女");
+            student.setCustomInfo("");
+            student.setIsActive(true);
+            students.add(student);
+        }
+        return students;
+    }
+
+    static String name(int i) {
+        int surnames = SURNAMES.length();
+        int givenNames = GIVEN_NAMES.length();
+        return "" + SURNAMES.charAt(i % surnames)
+                + GIVEN_NAMES.charAt((i / surnames) % givenNames)
+                + GIVEN_NAMES.charAt((i / (surnames * givenNames) + i) % givenNames);
+    }
+
+    /**
+     * 能容纳 count 名学生的近似方形布局
+     */
+    static Classroom classroom(int count) {
+        int cols = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + cols - 1) / cols;
+
+        Classroom classroom = new Classroom();
+        classroom.setId(CLASS_ID);
+        classroom.setTeacherId(1L);
+        classroom.setName("基准测试班级");
+        classroom.setSeatLayout(SeatLayout.of(rows, cols));
+        return classroom;
+    }
+
+    /**
+     * 与 Spring Boot 默认配置一致的 ObjectMapper
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * 装配排座服务；latestSnapshot 为最新排座记录的 JSON 快照（可为 null）
+     * PDF 不进入缓存，每次导出都完整渲染
+     */
+    static SeatingArrangementServiceImpl arrangementService(Classroom classroom, List<Student> students,
+                                                            String latestSnapshot, ObjectMapper objectMapper) {
+        ClassroomRepository classroomRepository = stub(ClassroomRepository.class);
+        when(classroomRepository.findById(CLASS_ID)).thenReturn(Optional.of(classroom));
+
+        // 每次返回新的副本，与真实仓库查询的行为一致
+        StudentService studentService = stub(StudentService.class);
+        when(studentService.getActiveStudentsByClassId(CLASS_ID)).thenAnswer(invocation -> new ArrayList<>(students));
+        when(studentService.countActiveStudentsByClassId(CLASS_ID)).thenReturn(students.size());
+
+        SeatingRecordRepository seatingRecordRepository = stub(SeatingRecordRepository.class);
+        if (latestSnapshot != null) {
+            SeatingRecord record = new SeatingRecord();
+            record.setId(1L);
+            record.setClassId(CLASS_ID);
+            record.setRecordName("benchmark");
+            record.setSnapshot(new SeatingSnapshot(latestSnapshot));
+            when(seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(anyLong()))
+                    .thenReturn(Optional.of(record));
+        }
+
+        StudentGroupRepository studentGroupRepository = stub(StudentGroupRepository.class);
+        when(studentGroupRepository.findByClassId(anyLong())).thenReturn(Collections.emptyList());
+
+        String fontPath = System.getProperty("seating.pdf.font-path", "fonts/NotoSansCJK-Regular.otf");
+        return new SeatingArrangementServiceImpl(
+                classroomRepository,
+                seatingRecordRepository,
+                stub(SeatingSnapshotRepository.class),
+                stub(JdbcTemplate.class),
+                studentService,
+                objectMapper,
+                studentGroupRepository,
+                new SeatingOptimizer(100, 1, 1),
+                Collections.emptyList(),
+                new SeatingPdfFonts(fontPath, 256),
+                new ArrangementCache(64, 0),
+                new SeatingMetrics(new SimpleMeterRegistry()),
+                stub(SeatStatService.class),
+                event -> { });
+    }
+
+    static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}
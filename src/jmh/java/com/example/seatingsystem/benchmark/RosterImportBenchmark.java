@@ -0,0 +1,109 @@
+package com.example.seatingsystem.benchmark;
+
+import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.RosterImportResult;
+import com.example.seatingsystem.repository.ClassroomRepository;
+import com.example.seatingsystem.repository.StudentRepository;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.metrics.SeatingMetrics;
+import com.example.seatingsystem.service.excel.RosterExcelReader;
+import com.example.seatingsystem.service.impl.StudentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * 名单 Excel 导入（流式解析 + 新增/更新/未变化分类）的基准测试
+ * 班级中已有前一半学生，其中每 4 人有 1 人改名，其余行为新增；JDBC 批量写入被桩替换
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterImportBenchmark {
+
+    @Param({"40", "400", "4000"})
+    private int rosterSize;
+
+    private StudentServiceImpl service;
+    private MockMultipartFile upload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Student> roster = BenchmarkFixtures.students(rosterSize);
+        upload = new MockMultipartFile("file", "roster.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", toXlsx(roster));
+
+        List<Student> existing = BenchmarkFixtures.students(rosterSize / 2);
+        for (int i = 0; i < existing.size(); i += 4) {
+            existing.get(i).setName(existing.get(i).getName() + "旧");
+        }
+
+        StudentRepository studentRepository = BenchmarkFixtures.stub(StudentRepository.class);
+        when(studentRepository.findByClassId(BenchmarkFixtures.CLASS_ID)).thenReturn(existing);
+
+        EntityManagerFactory entityManagerFactory = BenchmarkFixtures.stub(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(BenchmarkFixtures.stub(Cache.class));
+        SessionFactory sessionFactory = BenchmarkFixtures.stub(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(BenchmarkFixtures.stub(org.hibernate.Cache.class));
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+        service = new StudentServiceImpl(studentRepository, BenchmarkFixtures.stub(ClassroomRepository.class),
+                new RosterExcelReader(),
+                BenchmarkFixtures.stub(JdbcTemplate.class), 500, new ArrangementCache(1, 0), entityManagerFactory,
+                new SeatingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public RosterImportResult importFromExcel() throws Exception {
+        return service.importFromExcel(upload, BenchmarkFixtures.CLASS_ID);
+    }
+
+    // 列顺序与导入模板一致：学号, 姓名, 性别, 自定义信息
+    private static byte[] toXlsx(List<Student> students) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("学生");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("学号");
+            header.createCell(1).setCellValue("姓名");
+            header.createCell(2).setCellValue("性别");
+            header.createCell(3).setCellValue("自定义信息");
+
+            for (int i = 0; i < students.size(); i++) {
+                Student student = students.get(i);
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(student.getStudentNo());
+                row.createCell(1).setCellValue(student.getName());
+                row.createCell(2).setCellValue(student.getGender());
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
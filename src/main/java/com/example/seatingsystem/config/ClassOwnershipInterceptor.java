@@ -0,0 +1,80 @@
+package com.example.seatingsystem.config;
+
+import com.example.seatingsystem.service.auth.ClassOwnershipIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.util.Map;
+
+/**
+ * 班级权限拦截器：请求中带有班级ID（路径变量或参数 classId）时，校验当前教师是否拥有该班级
+ * 排座、后台任务和学生名单 JSON 接口（/seating/**、/jobs/**、/student/roster/**）返回 403，页面请求重定向回主页并提示
+ * 只校验请求中的班级ID；按学生ID操作的接口（修改、删除学生）还需由服务层确认学生属于该班级
+ */
+@Component
+public class ClassOwnershipInterceptor implements HandlerInterceptor {
+
+    private static final String FORBIDDEN_MESSAGE = "无权访问此班级。";
+
+    private final ClassOwnershipIndex classOwnershipIndex;
+
+    @Autowired
+    public ClassOwnershipInterceptor(ClassOwnershipIndex classOwnershipIndex) {
+        this.classOwnershipIndex = classOwnershipIndex;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            return true; // 未登录由各控制器重定向到登录页
+        }
+
+        Long classId = resolveClassId(request);
+        if (classId == null || classOwnershipIndex.owns(session, classId)) {
+            return true;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/seating/") || path.startsWith("/jobs/") || path.startsWith("/student/roster/")) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, FORBIDDEN_MESSAGE);
+        } else {
+            RequestContextUtils.getOutputFlashMap(request).put("errorMessage", FORBIDDEN_MESSAGE);
+            RequestContextUtils.saveOutputFlashMap("/home", request, response);
+            response.sendRedirect(request.getContextPath() + "/home");
+        }
+        return false;
+    }
+
+    /**
+     * 从路径变量 {classId}、请求参数 classId 或班级修改表单的 id 中取出班级ID
+     */
+    private Long resolveClassId(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+        String value = pathVariables != null ? pathVariables.get("classId") : null;
+        if (value == null) {
+            value = request.getParameter("classId");
+        }
+        if (value == null && request.getRequestURI().endsWith("/class/update")) {
+            value = request.getParameter("id");
+        }
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null; // 交给参数绑定报错
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.seatingsystem.config;
+
+import com.example.seatingsystem.model.SeatGrid;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 排座结果的紧凑 JSON 格式（application/vnd.seating.compact.v1+json）：
+ * <pre>
+ * {"v":1, "rows":R, "cols":C, ...子类字段（seed、score 等）,
+ *  "seats":[按行优先排列的每个座位的学生ID，空座为 0],
+ *  "students":{"学生ID":["姓名","性别"], ...}}
+ * </pre>
+ * 每个学生的姓名和性别只出现一次，空座只占一个 0，不再为每个座位重复 row/col/studentName 等键。
+ * 只有 Accept / Content-Type 为该类型的请求才使用，原有 JSON 客户端不受影响。
+ */
+public class CompactSeatingMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.seating.compact.v1+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final int VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper fieldMapper; // 输出 SeatingResult 及子类的其余字段，忽略 layout
+
+    public CompactSeatingMessageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.objectMapper = objectMapper;
+        this.fieldMapper = objectMapper.copy().addMixIn(SeatingResult.class, WithoutLayout.class);
+    }
+
+    /**
+     * Accept 请求头中是否明确要求了紧凑格式
+     */
+    public static boolean isRequested(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(acceptHeader).stream().anyMatch(MEDIA_TYPE::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SeatingResult.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * 只支持读取 SeatingResult 本身（保存接口的请求体）
+     */
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type == SeatingResult.class && canRead(mediaType);
+    }
+
+    /**
+     * 支持写出单个排座结果，以及排座结果的列表（候选方案）
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (supports(clazz) || isResultCollection(type)) && canWrite(mediaType);
+    }
+
+    private static boolean isResultCollection(Type type) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        return Collection.class.isAssignableFrom(resolved.toClass())
+                && SeatingResult.class.isAssignableFrom(resolved.asCollection().getGeneric(0).toClass());
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (object instanceof SeatingResult result) {
+                writeResult(result, generator);
+            } else {
+                generator.writeStartArray();
+                for (Object item : (Collection<?>) object) {
+                    writeResult((SeatingResult) item, generator);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * 序列化为紧凑格式的字符串（SSE 推送时只序列化一次，再写给所有连接）
+     */
+    public String writeAsString(SeatingResult result) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            writeResult(result, generator);
+        }
+        return writer.toString();
+    }
+
+    private void writeResult(SeatingResult result, JsonGenerator generator) throws IOException {
+        SeatGrid grid = result.grid();
+
+        generator.writeStartObject();
+        generator.writeNumberField("v", VERSION);
+        ObjectNode fields = fieldMapper.valueToTree(result);
+        for (Map.Entry<String, JsonNode> field : fields.properties()) {
+            generator.writeFieldName(field.getKey());
+            objectMapper.writeTree(generator, field.getValue());
+        }
+
+        // 稠密座位数组：每个座位一个学生ID
+        generator.writeArrayFieldStart("seats");
+        for (int row = 1; row <= grid.getRows(); row++) {
+            for (int col = 1; col <= grid.getCols(); col++) {
+                SeatingPosition seat = grid.get(row, col);
+                generator.writeNumber(seat == null ? 0 : seat.getStudentId());
+            }
+        }
+        generator.writeEndArray();
+
+        // 学生字典：每个就座学生只写一次
+        generator.writeObjectFieldStart("students");
+        for (SeatingPosition seat : grid.toLayout()) {
+            generator.writeArrayFieldStart(String.valueOf(seat.getStudentId()));
+            generator.writeString(seat.getStudentName());
+            generator.writeString(seat.getGender());
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JsonNode node = objectMapper.readTree(inputMessage.getBody());
+        if (node == null || !node.isObject() || node.path("v").asInt() != VERSION) {
+            throw new HttpMessageNotReadableException("不支持的紧凑排座格式版本。", inputMessage);
+        }
+
+        int rows = node.path("rows").asInt();
+        int cols = node.path("cols").asInt();
+        JsonNode seats = node.path("seats");
+        if (rows < 0 || cols < 0 || rows > SeatLayout.MAX_DIMENSION || cols > SeatLayout.MAX_DIMENSION) {
+            throw new HttpMessageNotReadableException("紧凑排座数据的行列数超出范围。", inputMessage);
+        }
+        if (!seats.isArray() || seats.size() != Math.multiplyExact(rows, cols)) {
+            throw new HttpMessageNotReadableException("紧凑排座数据的座位数与行列数不一致。", inputMessage);
+        }
+
+        JsonNode students = node.path("students");
+        List<SeatingPosition> layout = new ArrayList<>();
+        for (int index = 0; index < seats.size(); index++) {
+            long studentId = seats.get(index).asLong();
+            if (studentId == 0) continue;
+
+            JsonNode student = students.path(String.valueOf(studentId));
+            SeatingPosition position = new SeatingPosition();
+            position.setRow(index / cols + 1);
+            position.setCol(index % cols + 1);
+            position.setStudentId(studentId);
+            position.setStudentName(student.path(0).asText(null));
+            position.setGender(student.path(1).asText(null));
+            layout.add(position);
+        }
+
+        SeatingResult result = new SeatingResult();
+        result.setRows(rows);
+        result.setCols(cols);
+        result.setLayout(layout);
+        return result;
+    }
+
+    // 紧凑格式用 seats + students 代替 layout
+    private abstract static class WithoutLayout {
+        @JsonIgnore
+        abstract List<SeatingPosition> getLayout();
+    }
+}
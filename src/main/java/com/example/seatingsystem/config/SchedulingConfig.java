@@ -0,0 +1,13 @@
+package com.example.seatingsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 启用定时任务（如每周座位轮换，见 SeatRotationServiceImpl）
+ * 调度线程数由 spring.task.scheduling.pool.size 配置，避免轮换占住唯一线程导致推送心跳停摆
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.example.seatingsystem.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -38,6 +39,10 @@ public class SecurityConfig {
                                 "/css/**",
                                 "/js/**"
                         ).permitAll()
+                        // 监控端点（管理端口只监听 127.0.0.1）
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
+                        // 管理员接口（登录时授予的权限即 User.role）
+                        .requestMatchers("/admin/**").hasAuthority("ADMIN")
                         // 所有其他请求都需要认证（登录）
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,41 @@
+package com.example.seatingsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ClassOwnershipInterceptor classOwnershipInterceptor;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public WebConfig(ClassOwnershipInterceptor classOwnershipInterceptor, ObjectMapper objectMapper) {
+        this.classOwnershipInterceptor = classOwnershipInterceptor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 注册班级权限拦截器：所有涉及班级ID的班级、学生、排座、后台任务请求
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(classOwnershipInterceptor)
+                .addPathPatterns("/class/**", "/student/**", "/seating/**", "/jobs/**");
+    }
+
+    /**
+     * 注册排座结果的紧凑格式转换器：放在 Jackson 之前，
+     * 否则 Jackson 会以 application/*+json 的名义用普通格式写出该类型
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new CompactSeatingMessageConverter(objectMapper));
+    }
+}
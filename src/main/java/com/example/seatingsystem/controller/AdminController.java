@@ -0,0 +1,110 @@
+package com.example.seatingsystem.controller;
+
+import com.example.seatingsystem.entity.AsyncJob;
+import com.example.seatingsystem.model.RotationReport;
+import com.example.seatingsystem.service.SeatRotationService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.job.SeatingJobs;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpSession;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 管理员接口（仅 ADMIN 角色可访问，见 SecurityConfig）
+ */
+@Controller
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final ArrangementCache arrangementCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SeatRotationService seatRotationService;
+    private final SeatingJobs seatingJobs;
+
+    @Autowired
+    public AdminController(ArrangementCache arrangementCache, EntityManagerFactory entityManagerFactory,
+                           SeatRotationService seatRotationService, SeatingJobs seatingJobs) {
+        this.arrangementCache = arrangementCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.seatRotationService = seatRotationService;
+        this.seatingJobs = seatingJobs;
+    }
+
+    /**
+     * 手动触发全校座位轮换（默认试运行，只报告将要发生的变化；dryRun=false 时保存新记录）
+     */
+    @PostMapping("/rotation/run")
+    @ResponseBody
+    public RotationReport runRotation(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return seatRotationService.rotateAll(dryRun);
+    }
+
+    /**
+     * 以后台任务方式执行全校座位轮换，返回任务信息（通过 /jobs/{jobId} 查询进度并下载报告）
+     */
+    @PostMapping("/rotation/jobs")
+    @ResponseBody
+    public ResponseEntity<?> submitRotation(@RequestParam(defaultValue = "true") boolean dryRun, HttpSession session) {
+        try {
+            AsyncJob job = seatingJobs.submitRotation((Long) session.getAttribute("userId"), dryRun).getJob();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 排座结果 / PDF 缓存的命中、未命中、淘汰统计
+     */
+    @GetMapping("/cache/stats")
+    @ResponseBody
+    public Map<String, Object> getCacheStats() {
+        return arrangementCache.stats();
+    }
+
+    /**
+     * Hibernate 二级缓存与查询缓存统计：命中数即省下的数据库查询
+     */
+    @GetMapping("/hibernate/stats")
+    @ResponseBody
+    public Map<String, Object> getHibernateStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                Map<String, Object> counts = new LinkedHashMap<>();
+                counts.put("hitCount", regionStatistics.getHitCount());
+                counts.put("missCount", regionStatistics.getMissCount());
+                counts.put("putCount", regionStatistics.getPutCount());
+                regions.put(region, counts);
+            }
+        }
+        result.put("regions", regions);
+        return result;
+    }
+}
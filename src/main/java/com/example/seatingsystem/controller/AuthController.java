@@ -2,6 +2,7 @@ package com.example.seatingsystem.controller;
 
 import com.example.seatingsystem.entity.User;
 import com.example.seatingsystem.service.UserService;
+import com.example.seatingsystem.service.auth.ClassOwnershipIndex;
 import jakarta.servlet.http.HttpSession;
 import jakarta.servlet.http.HttpServletRequest; // <-- 新增导入
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,11 +30,13 @@ public class AuthController {
 
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final ClassOwnershipIndex classOwnershipIndex;
 
     @Autowired
-    public AuthController(UserService userService, PasswordEncoder passwordEncoder) {
+    public AuthController(UserService userService, PasswordEncoder passwordEncoder, ClassOwnershipIndex classOwnershipIndex) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.classOwnershipIndex = classOwnershipIndex;
     }
 
     /**
@@ -108,6 +111,8 @@ public class AuthController {
                 // 5. （可选）保留你的自定义 Session 属性，供业务逻辑使用
                 session.setAttribute("currentUser", user);
                 session.setAttribute("userId", user.getId());
+                // 载入该教师的班级ID，之后的班级权限校验不再查询数据库
+                classOwnershipIndex.load(session, user.getId());
 
                 // 6. 跳转到主页
                 return "redirect:/home";
@@ -1,17 +1,17 @@
 package com.example.seatingsystem.controller;
 
 import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SpacingConfig;
 import com.example.seatingsystem.service.ClassroomService;
 import com.example.seatingsystem.service.StudentService;
-import com.example.seatingsystem.service.SeatingArrangementService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.seatingsystem.service.auth.ClassOwnershipIndex;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import com.example.seatingsystem.model.SeatingResult;
 
 import java.util.Optional;
 
@@ -22,18 +22,15 @@ public class ClassroomController {
 
     private final ClassroomService classroomService;
     private final StudentService studentService;
-    private final ObjectMapper objectMapper;
-    private final SeatingArrangementService seatingArrangementService;
+    private final ClassOwnershipIndex classOwnershipIndex;
 
     @Autowired
     public ClassroomController(ClassroomService classroomService,
                                StudentService studentService,
-                               ObjectMapper objectMapper,
-                               SeatingArrangementService seatingArrangementService) {
+                               ClassOwnershipIndex classOwnershipIndex) {
         this.classroomService = classroomService;
         this.studentService = studentService;
-        this.objectMapper = objectMapper;
-        this.seatingArrangementService = seatingArrangementService;
+        this.classOwnershipIndex = classOwnershipIndex;
     }
 
     /**
@@ -49,20 +46,13 @@ public class ClassroomController {
         try {
             newClassroom.setTeacherId(teacherId);
 
-            // 默认设置一个空的座位布局，后续在排座功能中更新
-            if (newClassroom.getSeatLayout() == null || newClassroom.getSeatLayout().isEmpty()) {
-                newClassroom.setSeatLayout("{\"rows\": 0, \"cols\": 0}"); // 简化布局JSON
-            }
-
-            // ❗ 新增：为新的间距配置字段设置默认值（空 JSON 字符串）
-            if (newClassroom.getRowSpacingConfig() == null) {
-                newClassroom.setRowSpacingConfig("{}");
-            }
-            if (newClassroom.getColSpacingConfig() == null) {
-                newClassroom.setColSpacingConfig("{}");
-            }
+            // 新班级使用空布局（0 × 0）和默认间距，后续在排座功能中更新
+            newClassroom.setSeatLayout(SeatLayout.EMPTY);
+            newClassroom.setRowSpacingConfig(SpacingConfig.EMPTY);
+            newClassroom.setColSpacingConfig(SpacingConfig.EMPTY);
 
             classroomService.save(newClassroom);
+            classOwnershipIndex.grant(session, newClassroom.getId());
 
             redirectAttributes.addFlashAttribute("successMessage", "班级 [" + newClassroom.getName() + "] 创建成功！");
         } catch (RuntimeException e) {
@@ -90,58 +80,23 @@ public class ClassroomController {
             return "redirect:/home";
         }
 
+        // 班级归属已由 ClassOwnershipInterceptor 校验
         Classroom classroom = optionalClassroom.get();
 
-        if (!classroom.getTeacherId().equals(userId)) {
-            redirectAttributes.addFlashAttribute("errorMessage", "无权访问此班级。");
-            return "redirect:/home";
-        }
-
-        // 核心修复 1: 预处理 JSON 数据，避免 Thymeleaf SpEL 错误
-        int layoutRows = 0;
-        int layoutCols = 0;
-
-        if (classroom.getSeatLayout() != null && !classroom.getSeatLayout().isEmpty()) {
-            try {
-                // 使用 ObjectMapper 安全地解析 JSON 字符串
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Integer> layoutMap = objectMapper.readValue(classroom.getSeatLayout(), java.util.Map.class);
-                layoutRows = layoutMap.getOrDefault("rows", 0);
-                layoutCols = layoutMap.getOrDefault("cols", 0);
-            } catch (Exception e) {
-                // 如果解析失败，可以在 Model 中添加错误信息
-                model.addAttribute("errorMessage", "座位布局数据错误，请重新设置。");
-            }
-        }
+        // 核心修复 1: 布局在实体加载时已解析为 SeatLayout，直接读取行列数
+        int layoutRows = classroom.getSeatLayout().getRows();
+        int layoutCols = classroom.getSeatLayout().getCols();
 
+        // 核心修正 2: 自定义间距配置以 JSON 字符串传给前端（未配置时为 "{}"）
+        String rowSpacingConfig = classroom.getRowSpacingConfig().toJson();
+        String colSpacingConfig = classroom.getColSpacingConfig().toJson();
 
-        // 核心修正 2: 获取自定义间距配置，如果为空则设为默认空 JSON 字符串 "{}"
-        String rowSpacingConfig = classroom.getRowSpacingConfig() != null && !classroom.getRowSpacingConfig().isEmpty()
-                ? classroom.getRowSpacingConfig() : "{}";
-        String colSpacingConfig = classroom.getColSpacingConfig() != null && !classroom.getColSpacingConfig().isEmpty()
-                ? classroom.getColSpacingConfig() : "{}";
-
-        // ❗ 新增：获取最新的排座结果
-        Optional<SeatingResult> latestArrangement = seatingArrangementService.getLatestArrangement(classId);
-
-        // ❗ 传递最新的排座结果 (如果存在)
-        if (latestArrangement.isPresent()) {
-            // 将 SeatingResult 转换为 JSON 字符串传递给前端，确保前端能直接使用
-            try {
-                String arrangementJson = objectMapper.writeValueAsString(latestArrangement.get());
-                model.addAttribute("latestArrangementJson", arrangementJson); // 传递完整的布局数据
-            } catch (Exception e) {
-                model.addAttribute("errorMessage", "加载最近排座记录失败。");
-                model.addAttribute("latestArrangementJson", "{}");
-            }
-        } else {
-            model.addAttribute("latestArrangementJson", "{}"); // 传递空 JSON 字符串
-        }
+        // 最新排座结果不再内嵌到页面中，由前端通过 /seating/latest/{classId} 条件请求加载（未变化时 304）
 
         // 获取该班级的学生数量
         int studentCount = 0;
         try {
-            studentCount = studentService.getActiveStudentsByClassId(classId).size();
+            studentCount = studentService.countActiveStudentsByClassId(classId);
         } catch (Exception e) {
             model.addAttribute("errorMessage", "获取学生人数失败，排座功能可能受到影响。错误详情: " + e.getMessage());
         }
@@ -169,13 +124,7 @@ public class ClassroomController {
         }
 
         try {
-            // 确保用户有权修改（尽管 Service 层会通过 ID 校验）
-            Optional<Classroom> existing = classroomService.findById(classroom.getId());
-            if (existing.isEmpty() || !existing.get().getTeacherId().equals(teacherId)) {
-                redirectAttributes.addFlashAttribute("errorMessage", "无权修改此班级。");
-                return "redirect:/home";
-            }
-
+            // 班级归属已由 ClassOwnershipInterceptor 校验（表单中的 id 参数）
             classroomService.updateClassroom(classroom);
             redirectAttributes.addFlashAttribute("successMessage", "班级 [" + classroom.getName() + "] 修改成功！");
         } catch (RuntimeException e) {
@@ -197,14 +146,9 @@ public class ClassroomController {
         }
 
         try {
-            // 权限校验
-            Optional<Classroom> existing = classroomService.findById(classId);
-            if (existing.isEmpty() || !existing.get().getTeacherId().equals(teacherId)) {
-                redirectAttributes.addFlashAttribute("errorMessage", "无权删除此班级或班级不存在。");
-                return "redirect:/home";
-            }
-
+            // 班级归属已由 ClassOwnershipInterceptor 校验
             classroomService.deleteClassroom(classId);
+            classOwnershipIndex.revoke(session, classId);
             redirectAttributes.addFlashAttribute("successMessage", "班级已删除！");
         } catch (RuntimeException e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
@@ -40,13 +40,12 @@ public class HomeController {
         // 2. 根据教师ID获取他管理的班级列表
         List<Classroom> classrooms = classroomService.findByTeacher(userId);
 
-        // ❗ 4. 核心逻辑：计算每个班级的学生数量
+        // ❗ 4. 核心逻辑：一次分组查询统计所有班级的学生数量，没有学生的班级记为 0
+        Map<Long, Integer> countsByClass = studentService.countActiveStudentsByTeacherId(userId);
         Map<Long, Integer> studentCounts = new HashMap<>();
 
         for (Classroom classroom : classrooms) {
-            // 调用 StudentService 获取活跃学生列表，并计算数量
-            int count = studentService.getActiveStudentsByClassId(classroom.getId()).size();
-            studentCounts.put(classroom.getId(), count);
+            studentCounts.put(classroom.getId(), countsByClass.getOrDefault(classroom.getId(), 0));
         }
 
         // 5. 必须为模态框添加一个空的 Classroom 对象用于表单绑定 (防止 home.html 报错)
@@ -0,0 +1,147 @@
+package com.example.seatingsystem.controller;
+
+import com.example.seatingsystem.entity.AsyncJob;
+import com.example.seatingsystem.service.job.JobService;
+import com.example.seatingsystem.service.job.SeatingJobs;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 后台任务接口：提交、查询进度、下载结果、取消
+ * 涉及班级的提交请求由 ClassOwnershipInterceptor 校验班级归属，任务本身只对提交者可见
+ */
+@Controller
+@RequestMapping("/jobs")
+public class JobController {
+
+    private final JobService jobService;
+    private final SeatingJobs seatingJobs;
+
+    @Autowired
+    public JobController(JobService jobService, SeatingJobs seatingJobs) {
+        this.jobService = jobService;
+        this.seatingJobs = seatingJobs;
+    }
+
+    /**
+     * 提交 PDF 导出任务
+     */
+    @PostMapping("/pdf/{classId}")
+    @ResponseBody
+    public ResponseEntity<?> submitPdfExport(@PathVariable Long classId,
+                                             @RequestParam(required = false) String fileName,
+                                             HttpSession session) {
+        String finalFilename = (fileName != null && !fileName.isEmpty() ? fileName : "SeatingArrangement_" + classId) + ".pdf";
+        return submitted(() -> seatingJobs.submitPdfExport(currentUserId(session), classId, finalFilename).getJob());
+    }
+
+    /**
+     * 提交名单导入任务
+     */
+    @PostMapping("/import")
+    @ResponseBody
+    public ResponseEntity<?> submitRosterImport(@RequestParam("file") MultipartFile file,
+                                                @RequestParam("classId") Long classId,
+                                                HttpSession session) {
+        return submitted(() -> seatingJobs.submitRosterImport(currentUserId(session), classId, file).getJob());
+    }
+
+    /**
+     * 当前用户最近的任务
+     */
+    @GetMapping
+    @ResponseBody
+    public List<AsyncJob> listJobs(HttpSession session) {
+        return jobService.getRecentJobs(currentUserId(session));
+    }
+
+    /**
+     * 查询任务状态和进度
+     */
+    @GetMapping("/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> getJob(@PathVariable Long jobId, HttpSession session) {
+        try {
+            return ResponseEntity.ok(jobService.getJob(jobId, currentUserId(session)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 下载任务结果文件
+     */
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> download(@PathVariable Long jobId, HttpSession session) {
+        try {
+            AsyncJob job = jobService.getJob(jobId, currentUserId(session));
+            Path file = jobService.getResultFile(job);
+            Resource resource = new FileSystemResource(file);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(job.getResultContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(job.getResultName(), StandardCharsets.UTF_8).build().toString())
+                    .contentLength(resource.contentLength())
+                    .body(resource);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 取消任务
+     */
+    @PostMapping("/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<?> cancel(@PathVariable Long jobId, HttpSession session) {
+        try {
+            return ResponseEntity.ok(jobService.cancel(jobId, currentUserId(session)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 提交任务并返回 202；参数错误或队列已满时返回 400/503
+     */
+    private ResponseEntity<?> submitted(JobSubmitter submitter) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(submitter.submit());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("message", "任务提交失败: " + e.getMessage()));
+        }
+    }
+
+    private Long currentUserId(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) {
+            throw new RuntimeException("请先登录。");
+        }
+        return userId;
+    }
+
+    @FunctionalInterface
+    private interface JobSubmitter {
+        AsyncJob submit() throws Exception;
+    }
+}
@@ -1,27 +1,62 @@
 package com.example.seatingsystem.controller;
 
+import com.example.seatingsystem.config.CompactSeatingMessageConverter;
 import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.model.ArrangementVersion;
+import com.example.seatingsystem.model.OptimizedSeatingResult;
+import com.example.seatingsystem.model.SeatFairnessEntry;
+import com.example.seatingsystem.model.SeatPatchRequest;
+import com.example.seatingsystem.model.SeatingCandidate;
+import com.example.seatingsystem.model.SeatingRecordPage;
 import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.service.SeatStatService;
 import com.example.seatingsystem.service.SeatingArrangementService;
+import com.example.seatingsystem.service.job.JobService;
+import com.example.seatingsystem.service.push.ArrangementBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.ui.Model;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse; // ❗ 修复：新增导入
-import java.io.ByteArrayOutputStream; // ❗ 修复：新增导入
 import java.io.OutputStream; // ❗ 修复：新增导入
 
 @Controller
 @RequestMapping("/seating")
 public class SeatingController {
 
+    private static final int RECORD_PAGE_SIZE = 20; // 历史记录每页条数
+    private static final int DEFAULT_CANDIDATE_COUNT = 10; // 默认候选方案数
+
     private final SeatingArrangementService seatingArrangementService;
+    private final SeatStatService seatStatService;
+    private final JobService jobService;
+    private final ArrangementBroadcaster arrangementBroadcaster;
+    private final long syncWaitSeconds; // 同步导出等待空闲名额的最长时间
 
     @Autowired
-    public SeatingController(SeatingArrangementService seatingArrangementService) {
+    public SeatingController(SeatingArrangementService seatingArrangementService, SeatStatService seatStatService,
+                             JobService jobService, ArrangementBroadcaster arrangementBroadcaster,
+                             @Value("${seating.jobs.sync-wait-seconds:120}") long syncWaitSeconds) {
         this.seatingArrangementService = seatingArrangementService;
+        this.seatStatService = seatStatService;
+        this.jobService = jobService;
+        this.arrangementBroadcaster = arrangementBroadcaster;
+        this.syncWaitSeconds = syncWaitSeconds;
     }
 
     /**
@@ -45,24 +80,132 @@ public class SeatingController {
 
     /**
      * 响应前端的随机排座请求，返回 JSON 数据
+     * 传入 seed 时按该种子重新生成（用于复现某个候选方案）
      */
-    @GetMapping("/arrange/{classId}")
+    @GetMapping(value = "/arrange/{classId}", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
     @ResponseBody
-    public SeatingResult getRandomArrangement(@PathVariable Long classId) {
+    public SeatingCandidate getRandomArrangement(@PathVariable Long classId,
+                                                 @RequestParam(required = false) Long seed) {
+        if (seed != null) {
+            return seatingArrangementService.randomArrange(classId, seed);
+        }
         return seatingArrangementService.randomArrange(classId);
     }
 
     /**
-     * 显示排座历史记录列表
+     * 一次返回多个随机候选方案，供前端并排预览后选择
+     */
+    @GetMapping(value = "/arrange/{classId}/candidates", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
+    @ResponseBody
+    public List<SeatingCandidate> getCandidateArrangements(@PathVariable Long classId,
+                                                           @RequestParam(defaultValue = "" + DEFAULT_CANDIDATE_COUNT) int count) {
+        return seatingArrangementService.generateCandidates(classId, count);
+    }
+
+    /**
+     * 约束优化排座：返回最优排布以及最终罚分和迭代次数
+     */
+    @GetMapping(value = "/arrange/optimized/{classId}", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
+    @ResponseBody
+    public OptimizedSeatingResult getOptimizedArrangement(@PathVariable Long classId) {
+        return seatingArrangementService.optimizedArrange(classId);
+    }
+
+    /**
+     * 公平排座：参考学生过去坐过的区域，尽量轮换到坐得少的位置
+     */
+    @GetMapping(value = "/arrange/fair/{classId}", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
+    @ResponseBody
+    public OptimizedSeatingResult getFairArrangement(@PathVariable Long classId) {
+        return seatingArrangementService.fairArrange(classId);
+    }
+
+    /**
+     * 班级公平性报告：每个学生在前/中/后排、左/中/右侧就座的累计次数
+     */
+    @GetMapping("/fairness/{classId}")
+    @ResponseBody
+    public List<SeatFairnessEntry> getFairnessReport(@PathVariable Long classId) {
+        return seatStatService.getFairnessReport(classId);
+    }
+
+    /**
+     * 根据全部历史排座记录重新计算座位区域统计
+     */
+    @PostMapping("/fairness/{classId}/rebuild")
+    @ResponseBody
+    public Map<String, Object> rebuildFairnessStats(@PathVariable Long classId) {
+        int records = seatStatService.rebuild(classId);
+        return Map.of("success", true, "records", records);
+    }
+
+    /**
+     * 显示排座历史记录列表（首屏只渲染第一页摘要，后续页由前端通过 JSON 接口加载）
      */
     @GetMapping("/records/{classId}")
     public String showSeatingRecords(@PathVariable Long classId, Model model) {
-        List<SeatingRecord> records = seatingArrangementService.getRecordsByClassId(classId);
-        model.addAttribute("records", records);
+        SeatingRecordPage page = seatingArrangementService.getRecordSummaries(classId, null, null, RECORD_PAGE_SIZE);
+        model.addAttribute("recordPage", page);
+        model.addAttribute("records", page.getRecords());
         model.addAttribute("classId", classId);
         return "seating_records"; // 历史记录页面模板
     }
 
+    /**
+     * 历史记录摘要分页 (JSON)：传入上一页返回的 nextBeforeTime / nextBeforeId 获取下一页
+     */
+    @GetMapping("/records/{classId}/page")
+    @ResponseBody
+    public SeatingRecordPage getSeatingRecordPage(@PathVariable Long classId,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+                                                  @RequestParam(required = false) Long beforeId,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return seatingArrangementService.getRecordSummaries(classId, beforeTime, beforeId, size);
+    }
+
+    /**
+     * 打开某条历史记录：此时才加载并返回它的座位布局快照
+     */
+    @GetMapping(value = "/record/{classId}/{recordId}", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
+    @ResponseBody
+    public ResponseEntity<SeatingResult> getSeatingRecord(@PathVariable Long classId, @PathVariable Long recordId) {
+        return seatingArrangementService.getRecordArrangement(classId, recordId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 班级当前排座 (JSON)，支持 If-None-Match / If-Modified-Since
+     * 先用记录摘要和班级行计算版本，未变化时直接返回 304，不解析快照；尚无排座时返回 204
+     * 普通 JSON 与紧凑格式是同一版本的不同表示，使用不同的 ETag，并以 Vary: Accept 区分缓存
+     */
+    @GetMapping(value = "/latest/{classId}", produces = {MediaType.APPLICATION_JSON_VALUE, CompactSeatingMessageConverter.MEDIA_TYPE_VALUE})
+    @ResponseBody
+    public ResponseEntity<SeatingResult> getLatestArrangement(@PathVariable Long classId, ServletWebRequest request) {
+        ArrangementVersion version = seatingArrangementService.getArrangementVersion(classId);
+        String eTag = CompactSeatingMessageConverter.isRequested(request.getHeader(HttpHeaders.ACCEPT))
+                ? version.getETag(ArrangementVersion.COMPACT_VARIANT)
+                : version.getETag();
+        request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(eTag, version.getLastModified())) {
+            return null; // 304，响应头已由 checkNotModified 写入
+        }
+        return seatingArrangementService.getLatestArrangement(classId)
+                .map(result -> ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(result))
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * 订阅班级排座推送 (SSE)：连接时发送当前排座，之后每次保存新排座推送完整排座或变化的座位
+     * 浏览器断线重连时带回 Last-Event-ID（记录ID），排座未变化则不重复发送
+     */
+    @GetMapping(value = "/stream/{classId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArrangements(@PathVariable Long classId,
+                                         @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return arrangementBroadcaster.subscribe(classId, lastEventId);
+    }
+
     /**
      * 保存排座结果 (接收前端 JSON)
      */
@@ -72,48 +215,85 @@ public class SeatingController {
                                   @RequestParam String recordName,
                                   @RequestBody SeatingResult result) {
         try {
-            seatingArrangementService.saveArrangement(classId, result, recordName);
-            return "{\"success\": true}";
+            SeatingRecord saved = seatingArrangementService.saveArrangement(classId, result, recordName);
+            return "{\"success\": true, \"recordId\": " + saved.getId() + "}";
         } catch (RuntimeException e) {
             return "{\"success\": false, \"message\": \"" + e.getMessage() + "\"}";
         }
     }
 
+    /**
+     * 座位级调整：请求只包含 move/swap/clear/place 操作，响应只包含变化的座位（ArrangementDiff）
+     * baseRecordId 不是当前最新记录时返回 409，操作不合法或学生不在名单中时返回 400，整批都不生效
+     */
+    @PatchMapping(value = "/arrangement/{classId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> patchArrangement(@PathVariable Long classId, @RequestBody SeatPatchRequest request) {
+        try {
+            return ResponseEntity.ok(seatingArrangementService.patchArrangement(classId, request));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     /**
      * 新增：导出当前座位布局为 PDF
      * 允许前端通过 fileName 参数传递自定义文件名
+     * PDF 直接写入响应流（不设置 Content-Length，由容器使用分块传输），内存占用不随文档大小增长；
+     * 同时生成的数量与后台任务共享 seating.jobs.pool-size 上限，需要异步生成时使用 POST /jobs/pdf/{classId}
+     * 带 If-None-Match / If-Modified-Since 且排座未变化时返回 304，不提交生成任务
      */
     @GetMapping("/exportPdf/{classId}")
     public void exportSeatingToPdf(@PathVariable Long classId,
                                    @RequestParam(required = false) String fileName, // 接收可选文件名
+                                   HttpServletRequest request,
                                    HttpServletResponse response) {
         try {
-            // 1. 调用 Service 生成 PDF 数据
-            ByteArrayOutputStream os = seatingArrangementService.exportSeatingToPdf(classId);
+            // 0. 条件请求：排座、班级和名单都未变化时浏览器可继续使用已下载的文件
+            ArrangementVersion version = seatingArrangementService.getArrangementVersion(classId);
+            if (version.hasArrangement()
+                    && new ServletWebRequest(request, response).checkNotModified(version.getETag(), version.getLastModified())) {
+                return;
+            }
 
-            // 2. 确定文件名
+            // 1. 确定文件名
             String finalFilename = (fileName != null && !fileName.isEmpty() ? fileName : "SeatingArrangement_" + classId) + ".pdf";
 
-            // 3. 配置 HTTP 响应头
+            // 2. 配置 HTTP 响应头
             response.setContentType("application/pdf");
             // 使用 attachment 确保浏览器触发下载而不是预览
             response.setHeader("Content-Disposition", "attachment; filename=\"" + new String(finalFilename.getBytes("UTF-8"), "ISO8859-1") + "\"");
-            response.setContentLength(os.size());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
 
-            // 4. 将 PDF 数据写入响应流
-            OutputStream out = response.getOutputStream();
-            os.writeTo(out);
-            out.flush();
+            // 3. 在请求线程中边生成边写入响应流（与后台任务共享并发上限，不经过任务表和结果文件）
+            jobService.runInline(syncWaitSeconds, () -> {
+                OutputStream out = response.getOutputStream();
+                seatingArrangementService.exportSeatingToPdf(classId, out);
+                out.flush();
+                return null;
+            });
         } catch (RuntimeException e) {
-            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-            try {
-                response.getWriter().write("Error: " + e.getMessage());
-            } catch (Exception ignored) { /* Ignored */ }
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Error: " + e.getMessage());
         } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            try {
-                response.getWriter().write("Internal Server Error: PDF generation failed. Details: " + e.getMessage());
-            } catch (Exception ignored) { /* Ignored */ }
+            writeError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Internal Server Error: PDF generation failed. Details: " + e.getMessage());
         }
     }
+
+    /**
+     * 输出错误信息；如果 PDF 已经开始写出（响应已提交），则无法再修改状态码，只能中断连接
+     */
+    private void writeError(HttpServletResponse response, int status, String message) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.reset();
+            response.setStatus(status);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(message);
+        } catch (Exception ignored) { /* Ignored */ }
+    }
 }
\ No newline at end of file
@@ -2,10 +2,16 @@ package com.example.seatingsystem.controller;
 
 import com.example.seatingsystem.entity.Classroom;
 import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.RosterImportResult;
+import com.example.seatingsystem.model.StudentRosterPage;
 import com.example.seatingsystem.service.ClassroomService;
 import com.example.seatingsystem.service.StudentService;
+import com.example.seatingsystem.service.job.JobService;
+import com.example.seatingsystem.service.job.JobTicket;
+import com.example.seatingsystem.service.job.SeatingJobs;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -17,44 +23,64 @@ import java.util.List;
 @Controller
 public class StudentController {
 
+    private static final int ROSTER_PAGE_SIZE = 50; // 名单默认每页条数
+
     private final StudentService studentService;
     private final ClassroomService classroomService;
+    private final SeatingJobs seatingJobs;
+    private final JobService jobService;
+    private final long syncWaitSeconds; // 同步导入等待后台任务完成的最长时间
 
     @Autowired
-    public StudentController(StudentService studentService, ClassroomService classroomService) {
+    public StudentController(StudentService studentService, ClassroomService classroomService,
+                             SeatingJobs seatingJobs, JobService jobService,
+                             @Value("${seating.jobs.sync-wait-seconds:120}") long syncWaitSeconds) {
         this.studentService = studentService;
         this.classroomService = classroomService;
+        this.seatingJobs = seatingJobs;
+        this.jobService = jobService;
+        this.syncWaitSeconds = syncWaitSeconds;
     }
 
     /**
      * 显示班级学生列表和管理页面
      * 路径: /class/{classId}/students
+     * 页面只渲染班级信息和人数，学生列表由前端通过 /student/roster/{classId} 分页加载
      */
     @GetMapping("/class/{classId}/students")
     public String showStudentManagement(@PathVariable Long classId, HttpSession session, Model model) {
         Long userId = (Long) session.getAttribute("userId");
         if (userId == null) return "redirect:/login";
 
-        // 1. 检查班级和权限
+        // 1. 获取班级（归属已由 ClassOwnershipInterceptor 校验）
         Classroom classroom = classroomService.findById(classId)
                 .orElseThrow(() -> new RuntimeException("班级不存在"));
 
-        if (!classroom.getTeacherId().equals(userId)) {
-            model.addAttribute("error", "无权访问此班级。");
-            return "redirect:/home";
-        }
-
-        // 2. 获取数据
-        List<Student> students = studentService.getActiveStudentsByClassId(classId);
-
-        // 3. 传递给前端
+        // 2. 传递给前端（只统计人数，不加载学生实体）
         model.addAttribute("classroom", classroom);
-        model.addAttribute("students", students);
+        model.addAttribute("studentCount", studentService.countActiveStudentsByClassId(classId));
         model.addAttribute("newStudent", new Student()); // 用于手动添加表单绑定
 
         return "students_manage"; // 返回学生管理模板
     }
 
+    /**
+     * 学生名单分页 (JSON)：按 (学号, ID) 键集分页，传入上一页返回的 nextAfterNo / nextAfterId 获取下一页
+     * keyword 按姓名或学号模糊筛选，gender 按性别筛选；fields 包含 customInfo 时才返回自定义信息
+     */
+    @GetMapping("/student/roster/{classId}")
+    @ResponseBody
+    public StudentRosterPage getRosterPage(@PathVariable Long classId,
+                                           @RequestParam(required = false) String keyword,
+                                           @RequestParam(required = false) String gender,
+                                           @RequestParam(required = false) String afterNo,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "" + ROSTER_PAGE_SIZE) int size,
+                                           @RequestParam(required = false) List<String> fields) {
+        boolean withCustomInfo = fields != null && fields.contains("customInfo");
+        return studentService.getRosterPage(classId, keyword, gender, afterNo, afterId, size, withCustomInfo);
+    }
+
     /**
      * 处理手动添加单个学生请求
      */
@@ -76,6 +102,7 @@ public class StudentController {
     @PostMapping("/student/import")
     public String importStudents(@RequestParam("file") MultipartFile file,
                                  @RequestParam("classId") Long classId,
+                                 HttpSession session,
                                  RedirectAttributes redirectAttributes) {
 
         if (file.isEmpty()) {
@@ -84,8 +111,11 @@ public class StudentController {
         }
 
         try {
-            int count = studentService.importFromExcel(file, classId);
-            redirectAttributes.addFlashAttribute("successMessage", "成功导入 " + count + " 条学生数据！");
+            // 作为后台任务执行（受任务线程池并发限制），在此等待完成
+            JobTicket<RosterImportResult> ticket = seatingJobs.submitRosterImport((Long) session.getAttribute("userId"), classId, file);
+            RosterImportResult result = jobService.await(ticket, syncWaitSeconds);
+            redirectAttributes.addFlashAttribute("successMessage", "成功导入 " + result.getTotal() + " 条学生数据（新增 "
+                    + result.getInserted() + " 条，更新 " + result.getUpdated() + " 条，未变化 " + result.getUnchanged() + " 条）！");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "导入失败: " + e.getMessage());
         }
@@ -99,7 +129,7 @@ public class StudentController {
     @GetMapping("/student/delete/{studentId}")
     public String deleteStudent(@PathVariable Long studentId, @RequestParam Long classId, RedirectAttributes redirectAttributes) {
         try {
-            studentService.deleteStudentById(studentId);
+            studentService.deleteStudentById(studentId, classId);
             redirectAttributes.addFlashAttribute("successMessage", "学生信息删除成功 (已标记为不活跃)。");
         } catch (RuntimeException e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
@@ -0,0 +1,117 @@
+package com.example.seatingsystem.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 后台任务（PDF 导出、名单导入、批量轮换等），状态变更通过 AsyncJobRepository 的条件更新完成
+ */
+@Entity
+@Table(name = "async_job",
+        indexes = @Index(name = "idx_async_job_owner_time", columnList = "owner_id, create_time"))
+public class AsyncJob {
+
+    // 任务类型
+    public static final String TYPE_PDF_EXPORT = "PDF_EXPORT";
+    public static final String TYPE_ROSTER_IMPORT = "ROSTER_IMPORT";
+    public static final String TYPE_ROTATION = "ROTATION";
+
+    // 任务状态
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", nullable = false, length = 30)
+    private String jobType;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId; // 提交任务的用户ID
+
+    @Column(name = "class_id")
+    private Long classId; // 涉及的班级ID（跨班级任务为空）
+
+    @Column(nullable = false)
+    private int progress; // 进度 0-100
+
+    @Column(length = 500)
+    private String message; // 结果摘要或失败原因
+
+    @Column(name = "result_path", length = 500)
+    private String resultPath; // 结果文件在服务器上的位置（不对外暴露）
+
+    @Column(name = "result_name", length = 200)
+    private String resultName; // 下载时使用的文件名
+
+    @Column(name = "result_content_type", length = 100)
+    private String resultContentType;
+
+    @Column(name = "create_time", updatable = false)
+    private LocalDateTime createTime;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "finish_time")
+    private LocalDateTime finishTime;
+
+    // --- 构造函数 ---
+    public AsyncJob() {}
+
+    /**
+     * 任务是否已结束（成功、失败或取消）
+     */
+    public boolean isFinished() {
+        return SUCCEEDED.equals(status) || FAILED.equals(status) || CANCELLED.equals(status);
+    }
+
+    /**
+     * 是否有可下载的结果文件
+     */
+    public boolean isDownloadable() {
+        return SUCCEEDED.equals(status) && resultPath != null;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getJobType() { return jobType; }
+    public void setJobType(String jobType) { this.jobType = jobType; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+    public Long getClassId() { return classId; }
+    public void setClassId(Long classId) { this.classId = classId; }
+    public int getProgress() { return progress; }
+    public void setProgress(int progress) { this.progress = progress; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    @JsonIgnore
+    public String getResultPath() { return resultPath; }
+    public void setResultPath(String resultPath) { this.resultPath = resultPath; }
+    public String getResultName() { return resultName; }
+    public void setResultName(String resultName) { this.resultName = resultName; }
+    public String getResultContentType() { return resultContentType; }
+    public void setResultContentType(String resultContentType) { this.resultContentType = resultContentType; }
+    public LocalDateTime getCreateTime() { return createTime; }
+    public void setCreateTime(LocalDateTime createTime) { this.createTime = createTime; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+    public LocalDateTime getFinishTime() { return finishTime; }
+    public void setFinishTime(LocalDateTime finishTime) { this.finishTime = finishTime; }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createTime = LocalDateTime.now();
+    }
+}
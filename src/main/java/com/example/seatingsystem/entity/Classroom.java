@@ -1,9 +1,17 @@
 package com.example.seatingsystem.entity;
 
+import com.example.seatingsystem.entity.converter.SeatLayoutConverter;
+import com.example.seatingsystem.entity.converter.SpacingConfigConverter;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SpacingConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "classroom") // 二级缓存，见 ehcache.xml
 @Table(name = "classroom")
 public class Classroom {
 
@@ -20,13 +28,19 @@ public class Classroom {
     private String description; // 班级描述
 
     @Column(name = "seat_layout", columnDefinition = "TEXT")
-    private String seatLayout; // 座位布局配置（JSON 字符串）
+    @Convert(converter = SeatLayoutConverter.class)
+    private SeatLayout seatLayout = SeatLayout.EMPTY; // 座位布局配置（列中存 JSON，加载时解析一次）
 
     // ❗ 修改：移除旧的 Integer 间距字段，改为存储 JSON 配置
     @Column(name = "row_spacing_config", columnDefinition = "TEXT")
-    private String rowSpacingConfig;
+    @Convert(converter = SpacingConfigConverter.class)
+    private SpacingConfig rowSpacingConfig = SpacingConfig.EMPTY;
     @Column(name = "col_spacing_config", columnDefinition = "TEXT")
-    private String colSpacingConfig;
+    @Convert(converter = SpacingConfigConverter.class)
+    private SpacingConfig colSpacingConfig = SpacingConfig.EMPTY;
+
+    @Column(name = "roster_version", nullable = false)
+    private long rosterVersion; // 名单版本：学生增删改或导入有变化时加一（用于 ETag）
 
     @Column(name = "create_time", updatable = false)
     private LocalDateTime createTime;
@@ -49,14 +63,14 @@ public class Classroom {
     public void setName(String name) { this.name = name; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-    public String getSeatLayout() { return seatLayout; }
-    public void setSeatLayout(String seatLayout) { this.seatLayout = seatLayout; }
+    public SeatLayout getSeatLayout() { return seatLayout != null ? seatLayout : SeatLayout.EMPTY; }
+    public void setSeatLayout(SeatLayout seatLayout) { this.seatLayout = seatLayout; }
 
-    // ❗ 新增：间距配置 Getter/Setter
-    public String getRowSpacingConfig() { return rowSpacingConfig; }
-    public void setRowSpacingConfig(String rowSpacingConfig) { this.rowSpacingConfig = rowSpacingConfig; }
-    public String getColSpacingConfig() { return colSpacingConfig; }
-    public void setColSpacingConfig(String colSpacingConfig) { this.colSpacingConfig = colSpacingConfig; }
+    // ❗ 新增：间距配置 Getter/Setter（从不返回 null）
+    public SpacingConfig getRowSpacingConfig() { return rowSpacingConfig != null ? rowSpacingConfig : SpacingConfig.EMPTY; }
+    public void setRowSpacingConfig(SpacingConfig rowSpacingConfig) { this.rowSpacingConfig = rowSpacingConfig; }
+    public SpacingConfig getColSpacingConfig() { return colSpacingConfig != null ? colSpacingConfig : SpacingConfig.EMPTY; }
+    public void setColSpacingConfig(SpacingConfig colSpacingConfig) { this.colSpacingConfig = colSpacingConfig; }
 
     // ❗ 兼容性方法 (返回默认值 15，以便在前端修改前不报错)
     public Integer getRowSpacing() { return 15; }
@@ -65,6 +79,8 @@ public class Classroom {
     public void setColSpacing(Integer colSpacing) { /* 忽略设置 */ }
 
 
+    public long getRosterVersion() { return rosterVersion; }
+    public void setRosterVersion(long rosterVersion) { this.rosterVersion = rosterVersion; }
     public LocalDateTime getCreateTime() { return createTime; }
     public void setCreateTime(LocalDateTime createTime) { this.createTime = createTime; }
     public LocalDateTime getUpdateTime() { return updateTime; }
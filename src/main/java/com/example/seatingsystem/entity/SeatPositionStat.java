@@ -0,0 +1,88 @@
+package com.example.seatingsystem.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 学生座位区域统计：每保存一次排座记录累加一次，避免统计时解析全部历史快照
+ */
+@Entity
+@Table(name = "seat_position_stat",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seat_stat_class_student", columnNames = {"class_id", "student_id"}))
+public class SeatPositionStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "seated_count", nullable = false)
+    private int seatedCount; // 出现在排座记录中的次数
+
+    @Column(name = "front_count", nullable = false)
+    private int frontCount; // 坐在前排区域的次数
+
+    @Column(name = "middle_count", nullable = false)
+    private int middleCount;
+
+    @Column(name = "back_count", nullable = false)
+    private int backCount;
+
+    @Column(name = "left_count", nullable = false)
+    private int leftCount; // 坐在左侧区域的次数
+
+    @Column(name = "center_count", nullable = false)
+    private int centerCount;
+
+    @Column(name = "right_count", nullable = false)
+    private int rightCount;
+
+    @Column(name = "update_time")
+    private LocalDateTime updateTime;
+
+    // --- 构造函数 ---
+    public SeatPositionStat() {}
+
+    /**
+     * 行区域计数 [前, 中, 后]
+     */
+    public int[] getRowBandCounts() {
+        return new int[]{frontCount, middleCount, backCount};
+    }
+
+    /**
+     * 列区域计数 [左, 中, 右]
+     */
+    public int[] getColBandCounts() {
+        return new int[]{leftCount, centerCount, rightCount};
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getClassId() { return classId; }
+    public void setClassId(Long classId) { this.classId = classId; }
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+    public int getSeatedCount() { return seatedCount; }
+    public void setSeatedCount(int seatedCount) { this.seatedCount = seatedCount; }
+    public int getFrontCount() { return frontCount; }
+    public void setFrontCount(int frontCount) { this.frontCount = frontCount; }
+    public int getMiddleCount() { return middleCount; }
+    public void setMiddleCount(int middleCount) { this.middleCount = middleCount; }
+    public int getBackCount() { return backCount; }
+    public void setBackCount(int backCount) { this.backCount = backCount; }
+    public int getLeftCount() { return leftCount; }
+    public void setLeftCount(int leftCount) { this.leftCount = leftCount; }
+    public int getCenterCount() { return centerCount; }
+    public void setCenterCount(int centerCount) { this.centerCount = centerCount; }
+    public int getRightCount() { return rightCount; }
+    public void setRightCount(int rightCount) { this.rightCount = rightCount; }
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public void setUpdateTime(LocalDateTime updateTime) { this.updateTime = updateTime; }
+}
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "seating_record")
+@Table(name = "seating_record",
+        indexes = {
+                @Index(name = "idx_seating_record_class_time", columnList = "class_id, create_time"),
+                @Index(name = "idx_seating_record_snapshot", columnList = "snapshot_hash")
+        })
 public class SeatingRecord {
 
     @Id
@@ -17,8 +21,15 @@ public class SeatingRecord {
     @Column(name = "record_name", nullable = false, length = 100)
     private String recordName; // 排座记录名称
 
-    @Column(name = "layout_snapshot", columnDefinition = "LONGTEXT", nullable = false)
-    private String layoutSnapshot; // 座位布局快照（JSON 字符串）
+    @Column(name = "snapshot_hash", length = 64, columnDefinition = "CHAR(64)", nullable = false)
+    private String snapshotHash; // 座位布局快照的内容哈希，内容相同的记录共用一份快照
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "snapshot_hash", insertable = false, updatable = false)
+    private SeatingSnapshot snapshot; // 需要布局时由仓库方法一并加载
+
+    @Column(name = "seat_count")
+    private Integer seatCount; // 已就座人数，保存时写入，供历史列表展示
 
     @Column(name = "create_time", updatable = false)
     private LocalDateTime createTime;
@@ -52,12 +63,36 @@ public class SeatingRecord {
         this.recordName = recordName;
     }
 
+    public String getSnapshotHash() {
+        return snapshotHash;
+    }
+
+    public void setSnapshotHash(String snapshotHash) {
+        this.snapshotHash = snapshotHash;
+    }
+
+    public SeatingSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(SeatingSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.snapshotHash = snapshot == null ? null : snapshot.getContentHash();
+    }
+
+    /**
+     * 座位布局快照（JSON 字符串），快照未加载时返回 null
+     */
     public String getLayoutSnapshot() {
-        return layoutSnapshot;
+        return snapshot == null ? null : snapshot.getLayoutSnapshot();
+    }
+
+    public Integer getSeatCount() {
+        return seatCount;
     }
 
-    public void setLayoutSnapshot(String layoutSnapshot) { // 解决 SeatingArrangementServiceImpl 中的 setLayoutSnapshot
-        this.layoutSnapshot = layoutSnapshot;
+    public void setSeatCount(Integer seatCount) {
+        this.seatCount = seatCount;
     }
 
     public LocalDateTime getCreateTime() {
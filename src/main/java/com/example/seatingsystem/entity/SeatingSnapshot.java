@@ -0,0 +1,58 @@
+package com.example.seatingsystem.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * 排座布局快照：按内容的 SHA-256 存储，内容相同的排座记录共用同一行，写入后不再修改
+ */
+@Entity
+@Immutable
+@Table(name = "seating_snapshot")
+public class SeatingSnapshot {
+
+    @Id
+    @Column(name = "content_hash", length = 64, columnDefinition = "CHAR(64)")
+    private String contentHash; // 快照 JSON（UTF-8）的 SHA-256，小写十六进制
+
+    @Column(name = "layout_snapshot", columnDefinition = "LONGTEXT", nullable = false)
+    private String layoutSnapshot; // 规范化后的座位布局 JSON
+
+    @Column(name = "create_time", updatable = false)
+    private LocalDateTime createTime;
+
+    public SeatingSnapshot() {}
+
+    public SeatingSnapshot(String layoutSnapshot) {
+        this.contentHash = hashOf(layoutSnapshot);
+        this.layoutSnapshot = layoutSnapshot;
+    }
+
+    /**
+     * 计算快照内容的 SHA-256（与 MySQL 的 SHA2(layout_snapshot, 256) 结果一致）
+     */
+    public static String hashOf(String layoutSnapshot) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(layoutSnapshot.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    // --- Getters ---
+    public String getContentHash() { return contentHash; }
+    public String getLayoutSnapshot() { return layoutSnapshot; }
+    public LocalDateTime getCreateTime() { return createTime; }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createTime = LocalDateTime.now();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.seatingsystem.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "student")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student") // 二级缓存，见 ehcache.xml
+@Table(name = "student",
+        indexes = @Index(name = "idx_student_roster", columnList = "class_id, is_active, student_no"))
 public class Student {
 
     @Id
@@ -1,12 +1,17 @@
 package com.example.seatingsystem.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "student_group")
 public class StudentGroup {
 
+    // 分组类型
+    public static final String TYPE_TOGETHER = "TOGETHER"; // 需要坐在一起（默认）
+    public static final String TYPE_APART = "APART"; // 需要分开
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,6 +27,10 @@ public class StudentGroup {
 
     private String description; // 分组描述
 
+    @Column(name = "group_type", nullable = false, length = 20)
+    @ColumnDefault("'" + TYPE_TOGETHER + "'") // ddl-auto 为已有分组补列时也默认坐在一起
+    private String groupType = TYPE_TOGETHER; // 分组类型（TYPE_*），决定排座时是坐在一起还是分开
+
     @Column(name = "create_time", updatable = false)
     private LocalDateTime createTime;
 
@@ -39,6 +48,8 @@ public class StudentGroup {
     public void setStudentIds(String studentIds) { this.studentIds = studentIds; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public String getGroupType() { return groupType; }
+    public void setGroupType(String groupType) { this.groupType = groupType; }
     public LocalDateTime getCreateTime() { return createTime; }
     public void setCreateTime(LocalDateTime createTime) { this.createTime = createTime; }
 
@@ -1,9 +1,13 @@
 package com.example.seatingsystem.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user") // 二级缓存，见 ehcache.xml
 @Table(name = "user")
 public class User {
 
@@ -0,0 +1,36 @@
+package com.example.seatingsystem.entity.converter;
+
+import com.example.seatingsystem.model.SeatLayout;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Classroom.seatLayout 的 JSON 列与 SeatLayout 之间的转换
+ * SeatLayout 不可变，Hibernate 不必为脏检查复制快照（否则每次加载都要再序列化、解析一遍）
+ */
+@Converter
+@Mutability(Immutability.class)
+public class SeatLayoutConverter implements AttributeConverter<SeatLayout, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLayoutConverter.class);
+
+    @Override
+    public String convertToDatabaseColumn(SeatLayout attribute) {
+        return attribute == null ? null : attribute.toJson();
+    }
+
+    @Override
+    public SeatLayout convertToEntityAttribute(String dbData) {
+        try {
+            return SeatLayout.fromJson(dbData);
+        } catch (IllegalArgumentException e) {
+            // 历史脏数据不应导致整个班级无法加载，按未设置布局处理，由用户重新设置
+            log.warn("无法解析座位布局 {}，按未设置处理：{}", dbData, e.getMessage());
+            return SeatLayout.EMPTY;
+        }
+    }
+}
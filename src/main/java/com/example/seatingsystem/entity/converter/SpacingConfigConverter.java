@@ -0,0 +1,34 @@
+package com.example.seatingsystem.entity.converter;
+
+import com.example.seatingsystem.model.SpacingConfig;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Classroom 行/列间距的 JSON 列与 SpacingConfig 之间的转换
+ */
+@Converter
+@Mutability(Immutability.class)
+public class SpacingConfigConverter implements AttributeConverter<SpacingConfig, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(SpacingConfigConverter.class);
+
+    @Override
+    public String convertToDatabaseColumn(SpacingConfig attribute) {
+        return attribute == null ? null : attribute.toJson();
+    }
+
+    @Override
+    public SpacingConfig convertToEntityAttribute(String dbData) {
+        try {
+            return SpacingConfig.fromJson(dbData);
+        } catch (IllegalArgumentException e) {
+            log.warn("无法解析间距配置 {}，按默认间距处理：{}", dbData, e.getMessage());
+            return SpacingConfig.EMPTY;
+        }
+    }
+}
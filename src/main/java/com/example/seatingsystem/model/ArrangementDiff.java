@@ -0,0 +1,35 @@
+package com.example.seatingsystem.model;
+
+import java.util.List;
+
+// 推送给展示端的排座增量：相对 baseRecordId 的排座发生变化的座位
+// changes 中 studentId 为 null 表示该座位变为空座；展示端的当前记录不是 baseRecordId 时应重新加载完整排座
+public class ArrangementDiff {
+    private Long recordId;
+    private Long baseRecordId;
+    private int rows;
+    private int cols;
+    private List<SeatingPosition> changes;
+
+    public ArrangementDiff() {}
+
+    public ArrangementDiff(Long recordId, Long baseRecordId, int rows, int cols, List<SeatingPosition> changes) {
+        this.recordId = recordId;
+        this.baseRecordId = baseRecordId;
+        this.rows = rows;
+        this.cols = cols;
+        this.changes = changes;
+    }
+
+    // --- Getters and Setters ---
+    public Long getRecordId() { return recordId; }
+    public void setRecordId(Long recordId) { this.recordId = recordId; }
+    public Long getBaseRecordId() { return baseRecordId; }
+    public void setBaseRecordId(Long baseRecordId) { this.baseRecordId = baseRecordId; }
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+    public int getCols() { return cols; }
+    public void setCols(int cols) { this.cols = cols; }
+    public List<SeatingPosition> getChanges() { return changes; }
+    public void setChanges(List<SeatingPosition> changes) { this.changes = changes; }
+}
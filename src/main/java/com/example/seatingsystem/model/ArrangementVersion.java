@@ -0,0 +1,61 @@
+package com.example.seatingsystem.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// 班级当前排座的版本：由最新排座记录ID、班级修改时间和名单版本组成
+// 只依赖记录摘要和班级行，条件请求无需解析快照或生成 PDF 即可判断是否变化
+public class ArrangementVersion {
+    public static final String COMPACT_VARIANT = "compact"; // 紧凑 JSON 表示
+
+    private final Long classId;
+    private final Long recordId; // 最新排座记录ID，尚无记录时为 null
+    private final LocalDateTime recordTime;
+    private final LocalDateTime classroomUpdateTime;
+    private final long rosterVersion;
+
+    public ArrangementVersion(Long classId, Long recordId, LocalDateTime recordTime,
+                              LocalDateTime classroomUpdateTime, long rosterVersion) {
+        this.classId = classId;
+        this.recordId = recordId;
+        this.recordTime = recordTime;
+        this.classroomUpdateTime = classroomUpdateTime;
+        this.rosterVersion = rosterVersion;
+    }
+
+    public boolean hasArrangement() {
+        return recordId != null;
+    }
+
+    /**
+     * 强校验 ETag（带引号），任一组成部分变化都会得到新值
+     */
+    public String getETag() {
+        return getETag(null);
+    }
+
+    /**
+     * 同一版本的其他表示（如紧凑格式）使用的 ETag
+     */
+    public String getETag(String variant) {
+        return "\"c" + classId + "-r" + (recordId == null ? 0 : recordId)
+                + "-l" + toEpochMilli(classroomUpdateTime) + "-s" + rosterVersion
+                + (variant == null ? "" : "-" + variant) + "\"";
+    }
+
+    /**
+     * Last-Modified（毫秒）：最新记录时间与班级修改时间中较晚的一个，都没有时返回 -1
+     */
+    public long getLastModified() {
+        return Math.max(toEpochMilli(recordTime), toEpochMilli(classroomUpdateTime));
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // --- Getters ---
+    public Long getClassId() { return classId; }
+    public Long getRecordId() { return recordId; }
+    public long getRosterVersion() { return rosterVersion; }
+}
@@ -0,0 +1,11 @@
+package com.example.seatingsystem.model;
+
+/**
+ * 班级活跃学生人数的聚合查询结果（Spring Data 接口投影）
+ */
+public interface ClassStudentCount {
+
+    Long getClassId();
+
+    Long getStudentCount();
+}
@@ -0,0 +1,13 @@
+package com.example.seatingsystem.model;
+
+// 约束优化排座的结果：在普通排座网格的基础上附带最终罚分和迭代次数
+public class OptimizedSeatingResult extends SeatingResult {
+    private double score; // 最终罚分，越低越好
+    private long iterations; // 所有重启累计的迭代次数
+
+    // --- Getters and Setters ---
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public long getIterations() { return iterations; }
+    public void setIterations(long iterations) { this.iterations = iterations; }
+}
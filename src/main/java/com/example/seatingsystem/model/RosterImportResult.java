@@ -0,0 +1,27 @@
+package com.example.seatingsystem.model;
+
+// 名单导入结果：新增、更新、未变化的学生数量
+public class RosterImportResult {
+    private int inserted;
+    private int updated;
+    private int unchanged;
+
+    public RosterImportResult() {}
+
+    public RosterImportResult(int inserted, int updated, int unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    // --- Getters and Setters ---
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+
+    // 导入文件中的有效数据总行数
+    public int getTotal() { return inserted + updated + unchanged; }
+}
@@ -0,0 +1,82 @@
+package com.example.seatingsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 批量座位轮换的执行报告（试运行时只报告将要发生的变化，不保存）
+public class RotationReport {
+
+    public static final String ROTATED = "ROTATED";           // 已保存新的排座记录
+    public static final String WOULD_ROTATE = "WOULD_ROTATE"; // 试运行：将会轮换
+    public static final String SKIPPED = "SKIPPED";           // 无排座记录或布局已变更等原因跳过
+    public static final String FAILED = "FAILED";             // 处理出错
+
+    private boolean dryRun;
+    private int rowShift;
+    private int colShift;
+    private int classesScanned;
+    private int rotated;
+    private int skipped;
+    private int failed;
+    private long elapsedMs;
+    private List<ClassRotation> classes = new ArrayList<>();
+
+    /**
+     * 汇总单个班级的处理结果
+     */
+    public void add(ClassRotation rotation) {
+        classes.add(rotation);
+        classesScanned++;
+        switch (rotation.getStatus()) {
+            case ROTATED, WOULD_ROTATE -> rotated++;
+            case SKIPPED -> skipped++;
+            default -> failed++;
+        }
+    }
+
+    // 单个班级的轮换结果
+    public static class ClassRotation {
+        private Long classId;
+        private String className;
+        private String status;
+        private int movedStudents; // 座位发生变化的学生数
+        private String message;
+
+        public ClassRotation() {}
+
+        public ClassRotation(Long classId, String className, String status, int movedStudents, String message) {
+            this.classId = classId;
+            this.className = className;
+            this.status = status;
+            this.movedStudents = movedStudents;
+            this.message = message;
+        }
+
+        // --- Getters and Setters ---
+        public Long getClassId() { return classId; }
+        public void setClassId(Long classId) { this.classId = classId; }
+        public String getClassName() { return className; }
+        public void setClassName(String className) { this.className = className; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public int getMovedStudents() { return movedStudents; }
+        public void setMovedStudents(int movedStudents) { this.movedStudents = movedStudents; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    // --- Getters and Setters ---
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+    public int getRowShift() { return rowShift; }
+    public void setRowShift(int rowShift) { this.rowShift = rowShift; }
+    public int getColShift() { return colShift; }
+    public void setColShift(int colShift) { this.colShift = colShift; }
+    public int getClassesScanned() { return classesScanned; }
+    public int getRotated() { return rotated; }
+    public int getSkipped() { return skipped; }
+    public int getFailed() { return failed; }
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    public List<ClassRotation> getClasses() { return classes; }
+}
@@ -0,0 +1,24 @@
+package com.example.seatingsystem.model;
+
+/**
+ * 座位区域划分：行按前/中/后、列按左/中/右各分三段，用于统计学生坐过的位置。
+ */
+public final class SeatBands {
+
+    public static final int BAND_COUNT = 3;
+
+    public static final int FRONT = 0, MIDDLE = 1, BACK = 2; // 行区域
+    public static final int LEFT = 0, CENTER = 1, RIGHT = 2; // 列区域
+
+    private SeatBands() {}
+
+    /**
+     * 第 index 行/列（从 0 开始）所属的区域，共 size 行/列时按三等分划分
+     */
+    public static int of(int index, int size) {
+        if (size <= 0) {
+            return 0;
+        }
+        return Math.min(BAND_COUNT - 1, index * BAND_COUNT / size);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.seatingsystem.model;
+
+// 公平性报告中的一行：某个学生在各区域就座的累计次数（尚无统计的学生计数为 0）
+public class SeatFairnessEntry {
+    private Long studentId;
+    private String studentNo;
+    private String studentName;
+    private int seatedCount;
+    private int frontCount;
+    private int middleCount;
+    private int backCount;
+    private int leftCount;
+    private int centerCount;
+    private int rightCount;
+
+    public SeatFairnessEntry() {}
+
+    // JPQL 构造表达式使用
+    public SeatFairnessEntry(Long studentId, String studentNo, String studentName, Integer seatedCount,
+                             Integer frontCount, Integer middleCount, Integer backCount,
+                             Integer leftCount, Integer centerCount, Integer rightCount) {
+        this.studentId = studentId;
+        this.studentNo = studentNo;
+        this.studentName = studentName;
+        this.seatedCount = seatedCount;
+        this.frontCount = frontCount;
+        this.middleCount = middleCount;
+        this.backCount = backCount;
+        this.leftCount = leftCount;
+        this.centerCount = centerCount;
+        this.rightCount = rightCount;
+    }
+
+    // --- Getters and Setters ---
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+    public String getStudentNo() { return studentNo; }
+    public void setStudentNo(String studentNo) { this.studentNo = studentNo; }
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+    public int getSeatedCount() { return seatedCount; }
+    public void setSeatedCount(int seatedCount) { this.seatedCount = seatedCount; }
+    public int getFrontCount() { return frontCount; }
+    public void setFrontCount(int frontCount) { this.frontCount = frontCount; }
+    public int getMiddleCount() { return middleCount; }
+    public void setMiddleCount(int middleCount) { this.middleCount = middleCount; }
+    public int getBackCount() { return backCount; }
+    public void setBackCount(int backCount) { this.backCount = backCount; }
+    public int getLeftCount() { return leftCount; }
+    public void setLeftCount(int leftCount) { this.leftCount = leftCount; }
+    public int getCenterCount() { return centerCount; }
+    public void setCenterCount(int centerCount) { this.centerCount = centerCount; }
+    public int getRightCount() { return rightCount; }
+    public void setRightCount(int rightCount) { this.rightCount = rightCount; }
+}
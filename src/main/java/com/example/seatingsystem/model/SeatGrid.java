@@ -0,0 +1,169 @@
+package com.example.seatingsystem.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// 座位网格的紧凑索引结构：按 (row-1)*cols+(col-1) 下标存放的稠密数组 + 学生ID到座位下标的反向索引。
+// 空座只占一个 null 槽位，不再为每个空座创建 SeatingPosition 对象。
+public class SeatGrid {
+    private final int rows;
+    private final int cols;
+    private final SeatingPosition[] seats; // 空座为 null
+    private final Map<Long, Integer> seatIndexByStudent = new HashMap<>();
+
+    /**
+     * @throws IllegalArgumentException 行列数为负数或超过 SeatLayout.MAX_DIMENSION（行列数可能来自请求体）
+     */
+    public SeatGrid(int rows, int cols) {
+        if (rows < 0 || cols < 0 || rows > SeatLayout.MAX_DIMENSION || cols > SeatLayout.MAX_DIMENSION) {
+            throw new IllegalArgumentException("座位行数和列数必须在 0 到 " + SeatLayout.MAX_DIMENSION + " 之间。");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.seats = new SeatingPosition[Math.multiplyExact(rows, cols)];
+    }
+
+    /**
+     * 从 SeatingResult 的座位列表构建网格，同时校验座位越界和学生重复
+     */
+    public static SeatGrid from(SeatingResult result) {
+        SeatGrid grid = new SeatGrid(result.getRows(), result.getCols());
+        if (result.getLayout() != null) {
+            for (SeatingPosition position : result.getLayout()) {
+                if (position != null && position.getStudentId() != null) {
+                    grid.place(position);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * 将一个有人的座位放入网格
+     * @throws IllegalArgumentException 座位越界、座位已被占用或学生重复出现
+     */
+    public void place(SeatingPosition position) {
+        int index = indexOf(position.getRow(), position.getCol());
+        if (index < 0) {
+            throw new IllegalArgumentException("座位 (" + position.getRow() + "-" + position.getCol() + ") 超出布局范围。");
+        }
+        if (seats[index] != null) {
+            throw new IllegalArgumentException("座位 (" + position.getRow() + "-" + position.getCol() + ") 被重复分配。");
+        }
+        Integer previous = seatIndexByStudent.putIfAbsent(position.getStudentId(), index);
+        if (previous != null) {
+            throw new IllegalArgumentException("学生 " + position.getStudentName() + " 被分配到了多个座位。");
+        }
+        seats[index] = position;
+    }
+
+    /**
+     * 清空座位 (row, col)，返回原来坐在这里的学生，空座或越界返回 null
+     */
+    public SeatingPosition remove(int row, int col) {
+        int index = indexOf(row, col);
+        if (index < 0 || seats[index] == null) {
+            return null;
+        }
+        SeatingPosition removed = seats[index];
+        seats[index] = null;
+        seatIndexByStudent.remove(removed.getStudentId());
+        return removed;
+    }
+
+    /**
+     * 座位 (row, col)（从 1 开始）在稠密数组中的下标，越界返回 -1
+     */
+    public int indexOf(int row, int col) {
+        if (row < 1 || row > rows || col < 1 || col > cols) {
+            return -1;
+        }
+        return (row - 1) * cols + (col - 1);
+    }
+
+    /**
+     * 获取座位上的学生信息，空座或越界返回 null
+     */
+    public SeatingPosition get(int row, int col) {
+        int index = indexOf(row, col);
+        return index < 0 ? null : seats[index];
+    }
+
+    /**
+     * 根据学生ID查找其座位，不在网格中返回 null
+     */
+    public SeatingPosition findByStudent(Long studentId) {
+        Integer index = seatIndexByStudent.get(studentId);
+        return index == null ? null : seats[index];
+    }
+
+    /**
+     * 前后左右四个方向上有人的相邻座位
+     */
+    public List<SeatingPosition> neighbours(int row, int col) {
+        List<SeatingPosition> result = new ArrayList<>(4);
+        int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] offset : offsets) {
+            SeatingPosition neighbour = get(row + offset[0], col + offset[1]);
+            if (neighbour != null) {
+                result.add(neighbour);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 与行列数相同的另一网格逐座比较，返回学生发生变化的座位；变为空座的座位 studentId 为 null
+     */
+    public List<SeatingPosition> changesFrom(SeatGrid previous) {
+        if (previous.rows != rows || previous.cols != cols) {
+            throw new IllegalArgumentException("行列数不同的座位网格无法比较。");
+        }
+        List<SeatingPosition> changes = new ArrayList<>();
+        for (int index = 0; index < seats.length; index++) {
+            SeatingPosition before = previous.seats[index];
+            SeatingPosition after = seats[index];
+            if (!Objects.equals(before == null ? null : before.getStudentId(), after == null ? null : after.getStudentId())) {
+                SeatingPosition change = new SeatingPosition(index / cols + 1, index % cols + 1, null);
+                if (after != null) {
+                    change.setStudentId(after.getStudentId());
+                    change.setStudentName(after.getStudentName());
+                    change.setGender(after.getGender());
+                }
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getOccupiedCount() { return seatIndexByStudent.size(); }
+
+    /**
+     * 转换为稀疏的座位列表（只包含有人的座位，按行列顺序）
+     */
+    public List<SeatingPosition> toLayout() {
+        List<SeatingPosition> layout = new ArrayList<>(seatIndexByStudent.size());
+        for (SeatingPosition seat : seats) {
+            if (seat != null) {
+                layout.add(seat);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * 转换为 SeatingResult（稀疏布局，空座由前端按行列补齐）
+     */
+    public SeatingResult toResult() {
+        SeatingResult result = new SeatingResult();
+        result.setRows(rows);
+        result.setCols(cols);
+        result.setLayout(toLayout());
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.seatingsystem.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Serializable;
+
+/**
+ * 班级座位布局（行数 × 列数），不可变值对象
+ * 数据库中仍以 JSON {"rows": R, "cols": C} 存储，由 SeatLayoutConverter 在实体加载时解析一次
+ */
+public final class SeatLayout implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_DIMENSION = 100; // 行/列数上限
+    public static final SeatLayout EMPTY = new SeatLayout(0, 0); // 尚未设置布局
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int rows;
+    private final int cols;
+
+    private SeatLayout(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * 创建布局并校验行列数，0 × 0 表示尚未设置
+     * @throws IllegalArgumentException 行列数为负数或超过上限
+     */
+    public static SeatLayout of(int rows, int cols) {
+        if (rows < 0 || cols < 0 || rows > MAX_DIMENSION || cols > MAX_DIMENSION) {
+            throw new IllegalArgumentException("座位行数和列数必须在 0 到 " + MAX_DIMENSION + " 之间。");
+        }
+        return rows == 0 && cols == 0 ? EMPTY : new SeatLayout(rows, cols);
+    }
+
+    /**
+     * 解析 JSON {"rows": R, "cols": C}（兼容旧数据中多余的 "layout" 等字段），空字符串视为未设置
+     * @throws IllegalArgumentException JSON 格式错误或行列数无效
+     */
+    public static SeatLayout fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return EMPTY;
+        }
+        try {
+            JsonNode node = JSON.readTree(json);
+            return of(node.path("rows").asInt(0), node.path("cols").asInt(0));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("座位布局配置格式错误。", e);
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public int getSeatCount() { return rows * cols; }
+
+    // 行数和列数都大于 0 才能排座
+    public boolean isConfigured() { return rows > 0 && cols > 0; }
+
+    public String toJson() {
+        return "{\"rows\":" + rows + ",\"cols\":" + cols + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SeatLayout)) return false;
+        SeatLayout that = (SeatLayout) o;
+        return rows == that.rows && cols == that.cols;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * rows + cols;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols;
+    }
+}
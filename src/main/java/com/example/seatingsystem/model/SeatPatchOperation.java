@@ -0,0 +1,36 @@
+package com.example.seatingsystem.model;
+
+// 座位级调整操作：座位行列从 1 开始
+// move  把 (row, col) 的学生移到空座 (toRow, toCol)
+// swap  交换 (row, col) 与 (toRow, toCol) 上的学生（其中一个可以是空座）
+// clear 清空 (row, col)
+// place 把未就座的学生 studentId 安排到空座 (row, col)
+public class SeatPatchOperation {
+    public static final String MOVE = "move";
+    public static final String SWAP = "swap";
+    public static final String CLEAR = "clear";
+    public static final String PLACE = "place";
+
+    private String type;
+    private int row;
+    private int col;
+    private Integer toRow; // 仅 move / swap
+    private Integer toCol;
+    private Long studentId; // 仅 place
+
+    public SeatPatchOperation() {}
+
+    // --- Getters and Setters ---
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public int getCol() { return col; }
+    public void setCol(int col) { this.col = col; }
+    public Integer getToRow() { return toRow; }
+    public void setToRow(Integer toRow) { this.toRow = toRow; }
+    public Integer getToCol() { return toCol; }
+    public void setToCol(Integer toCol) { this.toCol = toCol; }
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+}
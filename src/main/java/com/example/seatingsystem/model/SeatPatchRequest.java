@@ -0,0 +1,21 @@
+package com.example.seatingsystem.model;
+
+import java.util.List;
+
+// 座位级调整请求：在 baseRecordId 对应的排座（必须是班级当前最新记录）上按顺序执行 operations
+// 班级尚无排座记录时 baseRecordId 为 null，在空座位表上执行
+public class SeatPatchRequest {
+    private Long baseRecordId;
+    private String recordName; // 为空时使用默认名称
+    private List<SeatPatchOperation> operations;
+
+    public SeatPatchRequest() {}
+
+    // --- Getters and Setters ---
+    public Long getBaseRecordId() { return baseRecordId; }
+    public void setBaseRecordId(Long baseRecordId) { this.baseRecordId = baseRecordId; }
+    public String getRecordName() { return recordName; }
+    public void setRecordName(String recordName) { this.recordName = recordName; }
+    public List<SeatPatchOperation> getOperations() { return operations; }
+    public void setOperations(List<SeatPatchOperation> operations) { this.operations = operations; }
+}
@@ -0,0 +1,14 @@
+package com.example.seatingsystem.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+// 随机排座的候选方案：附带生成它的随机种子，用同一种子可以重新得到完全相同的排布
+public class SeatingCandidate extends SeatingResult {
+    @JsonSerialize(using = ToStringSerializer.class) // 64 位种子超出 JS Number 精度，按字符串输出
+    private long seed;
+
+    // --- Getters and Setters ---
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+}
@@ -0,0 +1,35 @@
+package com.example.seatingsystem.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 排座历史的一页（按 create_time、id 倒序的键集分页）
+// 请求下一页时把 nextBeforeTime / nextBeforeId 原样传回
+public class SeatingRecordPage {
+    private List<SeatingRecordSummary> records;
+    private boolean hasMore;
+    private LocalDateTime nextBeforeTime;
+    private Long nextBeforeId;
+
+    public SeatingRecordPage() {}
+
+    public SeatingRecordPage(List<SeatingRecordSummary> records, boolean hasMore) {
+        this.records = records;
+        this.hasMore = hasMore;
+        if (hasMore && !records.isEmpty()) {
+            SeatingRecordSummary last = records.get(records.size() - 1);
+            this.nextBeforeTime = last.getCreateTime();
+            this.nextBeforeId = last.getId();
+        }
+    }
+
+    // --- Getters and Setters ---
+    public List<SeatingRecordSummary> getRecords() { return records; }
+    public void setRecords(List<SeatingRecordSummary> records) { this.records = records; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    public LocalDateTime getNextBeforeTime() { return nextBeforeTime; }
+    public void setNextBeforeTime(LocalDateTime nextBeforeTime) { this.nextBeforeTime = nextBeforeTime; }
+    public Long getNextBeforeId() { return nextBeforeId; }
+    public void setNextBeforeId(Long nextBeforeId) { this.nextBeforeId = nextBeforeId; }
+}
@@ -0,0 +1,31 @@
+package com.example.seatingsystem.model;
+
+import java.time.LocalDateTime;
+
+// 排座历史记录的摘要：列表页只需要名称、时间和座位数，不加载布局快照
+public class SeatingRecordSummary {
+    private Long id;
+    private String recordName;
+    private LocalDateTime createTime;
+    private Integer seatCount; // 已就座人数（早期记录没有该字段时为 null）
+
+    public SeatingRecordSummary() {}
+
+    // JPQL 构造表达式使用
+    public SeatingRecordSummary(Long id, String recordName, LocalDateTime createTime, Integer seatCount) {
+        this.id = id;
+        this.recordName = recordName;
+        this.createTime = createTime;
+        this.seatCount = seatCount;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRecordName() { return recordName; }
+    public void setRecordName(String recordName) { this.recordName = recordName; }
+    public LocalDateTime getCreateTime() { return createTime; }
+    public void setCreateTime(LocalDateTime createTime) { this.createTime = createTime; }
+    public Integer getSeatCount() { return seatCount; }
+    public void setSeatCount(Integer seatCount) { this.seatCount = seatCount; }
+}
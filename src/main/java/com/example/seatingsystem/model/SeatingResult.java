@@ -1,18 +1,57 @@
 package com.example.seatingsystem.model;
 
+import java.util.Collections;
 import java.util.List;
 
 // 用于表示整个班级的排座网格结果
 public class SeatingResult {
     private int rows;
     private int cols;
-    private List<SeatingPosition> layout; // 包含所有座位的列表
+    private List<SeatingPosition> layout; // 座位列表（可以只包含有人的座位，空座可省略）
+
+    private transient volatile SeatGrid grid; // 按需构建的索引网格，不参与 JSON 序列化
+    private transient volatile boolean frozen; // 已放入共享缓存，不允许再修改
 
     // --- Getters and Setters ---
     public int getRows() { return rows; }
-    public void setRows(int rows) { this.rows = rows; }
+    public void setRows(int rows) { checkNotFrozen(); this.rows = rows; this.grid = null; }
     public int getCols() { return cols; }
-    public void setCols(int cols) { this.cols = cols; }
+    public void setCols(int cols) { checkNotFrozen(); this.cols = cols; this.grid = null; }
     public List<SeatingPosition> getLayout() { return layout; }
-    public void setLayout(List<SeatingPosition> layout) { this.layout = layout; }
-}
\ No newline at end of file
+    public void setLayout(List<SeatingPosition> layout) { checkNotFrozen(); this.layout = layout; this.grid = null; }
+
+    /**
+     * 获取索引网格（首次调用时构建一次并缓存），同时完成座位越界/重复校验
+     * @throws IllegalArgumentException 布局数据不合法
+     */
+    public SeatGrid grid() {
+        SeatGrid current = grid;
+        if (current == null) {
+            current = SeatGrid.from(this);
+            grid = current;
+        }
+        return current;
+    }
+
+    /**
+     * 放入共享缓存前调用：预先构建索引网格，之后禁止修改行列数和座位列表，
+     * 多个线程同时读取时不会看到构建了一半的网格
+     * @throws IllegalArgumentException 布局数据不合法
+     */
+    public SeatingResult freeze() {
+        if (!frozen) {
+            if (layout != null) {
+                layout = Collections.unmodifiableList(layout);
+            }
+            grid = SeatGrid.from(this);
+            frozen = true;
+        }
+        return this;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("缓存中的排座结果是共享实例，不能修改。");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.seatingsystem.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 行/列间距配置，不可变值对象
+ * gaps[i] 为第 i+1 行（列）之后的间距像素，UNSET 表示使用前端默认间距
+ * 数据库与前端使用 JSON 对象 {"1": 20, "3": 15}（键为从 1 开始的序号）
+ */
+public final class SpacingConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int UNSET = -1;
+    public static final int MAX_SPACING = 500; // 间距像素上限
+    public static final SpacingConfig EMPTY = new SpacingConfig(new int[0]);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int[] gaps;
+
+    private SpacingConfig(int[] gaps) {
+        this.gaps = gaps;
+    }
+
+    /**
+     * 由间距数组创建配置（会复制数组），并校验取值范围
+     * @throws IllegalArgumentException 间距为负数（UNSET 除外）或超过上限
+     */
+    public static SpacingConfig of(int[] gaps) {
+        int length = gaps.length;
+        while (length > 0 && gaps[length - 1] == UNSET) {
+            length--; // 去掉末尾未设置的项
+        }
+        if (length == 0) {
+            return EMPTY;
+        }
+        int[] copy = Arrays.copyOf(gaps, length);
+        for (int gap : copy) {
+            if (gap != UNSET && (gap < 0 || gap > MAX_SPACING)) {
+                throw new IllegalArgumentException("间距必须在 0 到 " + MAX_SPACING + " 像素之间。");
+            }
+        }
+        return new SpacingConfig(copy);
+    }
+
+    /**
+     * 解析 JSON 对象 {"1": 20, "3": 15}，空字符串视为未配置
+     * @throws IllegalArgumentException JSON 格式错误、序号或间距无效
+     */
+    public static SpacingConfig fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return EMPTY;
+        }
+        JsonNode node;
+        try {
+            node = JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("间距配置格式错误。", e);
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("间距配置格式错误。");
+        }
+
+        int[] gaps = new int[0];
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            int index;
+            try {
+                index = Integer.parseInt(field.getKey());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("间距配置序号无效：" + field.getKey());
+            }
+            if (index < 1 || index > SeatLayout.MAX_DIMENSION) {
+                throw new IllegalArgumentException("间距配置序号无效：" + field.getKey());
+            }
+            if (!field.getValue().canConvertToInt()) {
+                throw new IllegalArgumentException("间距配置数值无效：" + field.getValue());
+            }
+            if (index > gaps.length) {
+                int oldLength = gaps.length;
+                gaps = Arrays.copyOf(gaps, index);
+                Arrays.fill(gaps, oldLength, index, UNSET);
+            }
+            gaps[index - 1] = field.getValue().asInt();
+        }
+        return of(gaps);
+    }
+
+    /**
+     * 第 index 行（列）之后的间距，index 从 1 开始；未设置时返回 defaultValue
+     */
+    public int gapAfter(int index, int defaultValue) {
+        int i = index - 1;
+        return i >= 0 && i < gaps.length && gaps[i] != UNSET ? gaps[i] : defaultValue;
+    }
+
+    public int size() { return gaps.length; }
+
+    public boolean isEmpty() { return gaps.length == 0; }
+
+    public int[] toArray() { return gaps.clone(); }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < gaps.length; i++) {
+            if (gaps[i] == UNSET) continue;
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(i + 1).append("\":").append(gaps[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SpacingConfig)) return false;
+        return Arrays.equals(gaps, ((SpacingConfig) o).gaps);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(gaps);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
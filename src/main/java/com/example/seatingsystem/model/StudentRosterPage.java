@@ -0,0 +1,34 @@
+package com.example.seatingsystem.model;
+
+import java.util.List;
+
+// 学生名单的一页（按 student_no、id 升序的键集分页）
+// 请求下一页时把 nextAfterNo / nextAfterId 原样传回
+public class StudentRosterPage {
+    private List<StudentRosterRow> rows;
+    private boolean hasMore;
+    private String nextAfterNo;
+    private Long nextAfterId;
+
+    public StudentRosterPage() {}
+
+    public StudentRosterPage(List<StudentRosterRow> rows, boolean hasMore) {
+        this.rows = rows;
+        this.hasMore = hasMore;
+        if (hasMore && !rows.isEmpty()) {
+            StudentRosterRow last = rows.get(rows.size() - 1);
+            this.nextAfterNo = last.getStudentNo();
+            this.nextAfterId = last.getId();
+        }
+    }
+
+    // --- Getters and Setters ---
+    public List<StudentRosterRow> getRows() { return rows; }
+    public void setRows(List<StudentRosterRow> rows) { this.rows = rows; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    public String getNextAfterNo() { return nextAfterNo; }
+    public void setNextAfterNo(String nextAfterNo) { this.nextAfterNo = nextAfterNo; }
+    public Long getNextAfterId() { return nextAfterId; }
+    public void setNextAfterId(Long nextAfterId) { this.nextAfterId = nextAfterId; }
+}
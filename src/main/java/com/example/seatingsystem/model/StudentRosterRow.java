@@ -0,0 +1,38 @@
+package com.example.seatingsystem.model;
+
+// 学生管理页名单的一行：只包含列表展示需要的字段，自定义信息按需加载
+public class StudentRosterRow {
+    private Long id;
+    private String studentNo;
+    private String name;
+    private String gender;
+    private String customInfo; // 未请求 customInfo 字段时为 null
+
+    public StudentRosterRow() {}
+
+    // JPQL 构造表达式使用（不含自定义信息）
+    public StudentRosterRow(Long id, String studentNo, String name, String gender) {
+        this.id = id;
+        this.studentNo = studentNo;
+        this.name = name;
+        this.gender = gender;
+    }
+
+    // JPQL 构造表达式使用（含自定义信息）
+    public StudentRosterRow(Long id, String studentNo, String name, String gender, String customInfo) {
+        this(id, studentNo, name, gender);
+        this.customInfo = customInfo;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getStudentNo() { return studentNo; }
+    public void setStudentNo(String studentNo) { this.studentNo = studentNo; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+    public String getCustomInfo() { return customInfo; }
+    public void setCustomInfo(String customInfo) { this.customInfo = customInfo; }
+}
@@ -0,0 +1,66 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.entity.AsyncJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 任务状态只通过带状态条件的 UPDATE 变更，执行线程与取消请求并发时不会互相覆盖
+ */
+@Repository
+public interface AsyncJobRepository extends JpaRepository<AsyncJob, Long> {
+
+    Optional<AsyncJob> findByIdAndOwnerId(Long id, Long ownerId);
+
+    /**
+     * 某一用户最近的任务
+     */
+    List<AsyncJob> findByOwnerIdOrderByCreateTimeDescIdDesc(Long ownerId, Pageable pageable);
+
+    /**
+     * 结束时间早于指定时间的任务（清理过期结果文件）
+     */
+    List<AsyncJob> findByFinishTimeBefore(LocalDateTime time);
+
+    /**
+     * 等待中 -> 执行中；返回 0 表示任务已在开始前被取消
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AsyncJob j SET j.status = 'RUNNING', j.startTime = :time WHERE j.id = :id AND j.status = 'PENDING'")
+    int markRunning(@Param("id") Long id, @Param("time") LocalDateTime time);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AsyncJob j SET j.progress = :progress WHERE j.id = :id AND j.status = 'RUNNING'")
+    int updateProgress(@Param("id") Long id, @Param("progress") int progress);
+
+    /**
+     * 结束任务（成功/失败/取消）；已结束的任务不会被再次修改
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AsyncJob j SET j.status = :status, j.message = :message, j.resultPath = :resultPath, "
+            + "j.progress = CASE WHEN :status = 'SUCCEEDED' THEN 100 ELSE j.progress END, j.finishTime = :time "
+            + "WHERE j.id = :id AND j.status IN ('PENDING', 'RUNNING')")
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("message") String message,
+               @Param("resultPath") String resultPath, @Param("time") LocalDateTime time);
+
+    /**
+     * 服务启动时，将上次进程遗留的未完成任务标记为失败
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AsyncJob j SET j.status = 'FAILED', j.message = :message, j.finishTime = :time "
+            + "WHERE j.status IN ('PENDING', 'RUNNING')")
+    int failUnfinished(@Param("message") String message, @Param("time") LocalDateTime time);
+}
@@ -1,10 +1,22 @@
 package com.example.seatingsystem.repository;
 
 import com.example.seatingsystem.entity.Classroom;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
@@ -14,5 +26,41 @@ public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
      * @param teacherId 教师ID
      * @return 该教师的班级列表
      */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "query.classroom")
+    })
     List<Classroom> findByTeacherId(Long teacherId);
-}
\ No newline at end of file
+
+    /**
+     * 查找某一老师管理的所有班级ID（登录时建立会话内的班级归属索引）
+     */
+    @Query("SELECT c.id FROM Classroom c WHERE c.teacherId = :teacherId")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
+
+    /**
+     * 检查班级是否属于某位老师
+     */
+    boolean existsByIdAndTeacherId(Long id, Long teacherId);
+
+    /**
+     * 按ID顺序分批读取班级（键集分页：从上一批最后一个ID之后继续）
+     */
+    List<Classroom> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * 读取班级并加行锁（SELECT ... FOR UPDATE），同一班级的座位调整在事务内依次执行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Classroom c WHERE c.id = :id")
+    Optional<Classroom> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 名单发生变化：名单版本加一并更新修改时间，使排座 JSON / PDF 的 ETag 失效
+     * （批量更新会同时清除班级的二级缓存）
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Classroom c SET c.rosterVersion = c.rosterVersion + 1, c.updateTime = :time WHERE c.id = :id")
+    int incrementRosterVersion(@Param("id") Long id, @Param("time") LocalDateTime time);
+}
@@ -0,0 +1,29 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.entity.SeatPositionStat;
+import com.example.seatingsystem.model.SeatFairnessEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatPositionStatRepository extends JpaRepository<SeatPositionStat, Long> {
+
+    /**
+     * 查找某一班级所有学生的座位区域统计
+     */
+    List<SeatPositionStat> findByClassId(Long classId);
+
+    /**
+     * 班级公平性报告：在读学生左连接其统计行，一次查询，行数与学生数相同
+     */
+    @Query("SELECT new com.example.seatingsystem.model.SeatFairnessEntry(s.id, s.studentNo, s.name, "
+            + "COALESCE(st.seatedCount, 0), COALESCE(st.frontCount, 0), COALESCE(st.middleCount, 0), COALESCE(st.backCount, 0), "
+            + "COALESCE(st.leftCount, 0), COALESCE(st.centerCount, 0), COALESCE(st.rightCount, 0)) "
+            + "FROM Student s LEFT JOIN SeatPositionStat st ON st.classId = s.classId AND st.studentId = s.id "
+            + "WHERE s.classId = :classId AND s.isActive = true ORDER BY s.studentNo")
+    List<SeatFairnessEntry> findFairnessReport(@Param("classId") Long classId);
+}
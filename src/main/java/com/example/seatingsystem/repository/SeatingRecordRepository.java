@@ -1,18 +1,63 @@
 package com.example.seatingsystem.repository;
 
 import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.model.SeatingRecordSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SeatingRecordRepository extends JpaRepository<SeatingRecord, Long> {
 
     /**
-     * 查找某一班级的所有历史排座记录
-     * @param classId 班级ID
-     * @return 排座记录列表
+     * 查找某一班级最新的一条排座记录（LIMIT 1，走 (class_id, create_time) 索引）
+     * 同一秒内保存的多条记录按 ID 倒序取最后保存的一条；布局快照在同一查询中一并加载
      */
-    List<SeatingRecord> findByClassIdOrderByCreateTimeDesc(Long classId);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "snapshot")
+    Optional<SeatingRecord> findFirstByClassIdOrderByCreateTimeDescIdDesc(Long classId);
+
+    /**
+     * 历史记录摘要的第一页（不加载布局快照）
+     */
+    @Query("SELECT new com.example.seatingsystem.model.SeatingRecordSummary(r.id, r.recordName, r.createTime, r.seatCount) "
+            + "FROM SeatingRecord r WHERE r.classId = :classId "
+            + "ORDER BY r.createTime DESC, r.id DESC")
+    List<SeatingRecordSummary> findSummaries(@Param("classId") Long classId, Pageable pageable);
+
+    /**
+     * 历史记录摘要的后续页：从上一页最后一条 (createTime, id) 之后继续，避免 OFFSET 扫描
+     */
+    @Query("SELECT new com.example.seatingsystem.model.SeatingRecordSummary(r.id, r.recordName, r.createTime, r.seatCount) "
+            + "FROM SeatingRecord r WHERE r.classId = :classId "
+            + "AND (r.createTime < :beforeTime OR (r.createTime = :beforeTime AND r.id < :beforeId)) "
+            + "ORDER BY r.createTime DESC, r.id DESC")
+    List<SeatingRecordSummary> findSummariesBefore(@Param("classId") Long classId,
+                                                  @Param("beforeTime") LocalDateTime beforeTime,
+                                                  @Param("beforeId") Long beforeId,
+                                                  Pageable pageable);
+
+    /**
+     * 按ID查找某一班级的排座记录（打开单条历史记录时才加载快照）
+     */
+    @EntityGraph(attributePaths = "snapshot")
+    Optional<SeatingRecord> findByIdAndClassId(Long id, Long classId);
+
+    /**
+     * 按时间顺序逐条读取某一班级每条记录的快照（只查询快照内容），用于重建座位统计
+     * 需在事务内消费并关闭
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT s.layoutSnapshot FROM SeatingRecord r JOIN r.snapshot s WHERE r.classId = :classId ORDER BY r.createTime, r.id")
+    Stream<String> streamSnapshotsByClassId(@Param("classId") Long classId);
+}
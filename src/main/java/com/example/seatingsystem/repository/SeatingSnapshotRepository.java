@@ -0,0 +1,13 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 快照只读查询；写入由 SeatingArrangementServiceImpl 通过 JdbcTemplate 执行 INSERT IGNORE，
+ * 避免原生 @Modifying 查询清空全部二级缓存区域
+ */
+@Repository
+public interface SeatingSnapshotRepository extends JpaRepository<SeatingSnapshot, String> {
+}
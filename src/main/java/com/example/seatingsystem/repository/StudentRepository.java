@@ -1,14 +1,20 @@
 package com.example.seatingsystem.repository;
 
 import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.ClassStudentCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRosterRepository {
 
     /**
      * 查找某一班级的所有活跃学生，并按学号升序排列
@@ -16,8 +22,31 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * @param classId 班级ID
      * @return 学生列表
      */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "query.student")
+    })
     List<Student> findByClassIdAndIsActiveTrueOrderByStudentNoAsc(Long classId);
 
+    /**
+     * 查找某一班级的全部学生（包括非活跃学生），用于批量导入时一次性比对已有学号
+     */
+    List<Student> findByClassId(Long classId);
+
+    /**
+     * 统计某位教师名下各班级的活跃学生人数（一次 GROUP BY 查询，不加载学生实体）
+     * 没有活跃学生的班级不会出现在结果中
+     */
+    @Query("SELECT s.classId AS classId, COUNT(s) AS studentCount FROM Student s "
+            + "WHERE s.isActive = true AND s.classId IN (SELECT c.id FROM Classroom c WHERE c.teacherId = :teacherId) "
+            + "GROUP BY s.classId")
+    List<ClassStudentCount> countActiveByTeacherId(@Param("teacherId") Long teacherId);
+
+    /**
+     * 统计某一班级的活跃学生人数
+     */
+    long countByClassIdAndIsActiveTrue(Long classId);
+
     /**
      * 检查某一班级下的学号是否已存在（用于导入和手动添加校验）
      */
@@ -0,0 +1,23 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.model.StudentRosterRow;
+
+import java.util.List;
+
+/**
+ * 学生名单的键集分页查询（筛选条件和返回字段可选，按需拼接 JPQL），由 StudentRepository 继承
+ */
+public interface StudentRosterRepository {
+
+    /**
+     * 按 (student_no, id) 升序取班级活跃学生的一页
+     * @param keyword        按姓名或学号模糊筛选，可为空
+     * @param gender         按性别筛选，可为空
+     * @param afterNo        上一页最后一行的学号，第一页传 null
+     * @param afterId        上一页最后一行的ID，第一页传 null
+     * @param withCustomInfo 是否返回自定义信息（TEXT 列，默认不查询）
+     * @param limit          最多返回的行数
+     */
+    List<StudentRosterRow> findRosterPage(Long classId, String keyword, String gender,
+                                          String afterNo, Long afterId, boolean withCustomInfo, int limit);
+}
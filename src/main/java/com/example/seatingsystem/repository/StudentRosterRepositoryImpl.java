@@ -0,0 +1,61 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.model.StudentRosterRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * StudentRosterRepository 的实现：只有传入的条件才出现在 WHERE 中，
+ * 第一页和后续页都能直接使用 (class_id, is_active, student_no) 索引范围扫描
+ */
+public class StudentRosterRepositoryImpl implements StudentRosterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudentRosterRow> findRosterPage(Long classId, String keyword, String gender,
+                                                 String afterNo, Long afterId, boolean withCustomInfo, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new com.example.seatingsystem.model.StudentRosterRow(")
+                .append("s.id, s.studentNo, s.name, s.gender")
+                .append(withCustomInfo ? ", s.customInfo) " : ") ")
+                .append("FROM Student s WHERE s.classId = :classId AND s.isActive = true");
+
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+        boolean hasGender = gender != null && !gender.isBlank();
+        boolean hasCursor = afterNo != null && afterId != null;
+        if (hasKeyword) {
+            jpql.append(" AND (s.name LIKE :keyword ESCAPE '!' OR s.studentNo LIKE :keyword ESCAPE '!')");
+        }
+        if (hasGender) {
+            jpql.append(" AND s.gender = :gender");
+        }
+        if (hasCursor) {
+            jpql.append(" AND (s.studentNo > :afterNo OR (s.studentNo = :afterNo AND s.id > :afterId))");
+        }
+        jpql.append(" ORDER BY s.studentNo ASC, s.id ASC");
+
+        TypedQuery<StudentRosterRow> query = entityManager.createQuery(jpql.toString(), StudentRosterRow.class)
+                .setParameter("classId", classId)
+                .setMaxResults(limit);
+        if (hasKeyword) {
+            query.setParameter("keyword", "%" + escapeLike(keyword.trim()) + "%");
+        }
+        if (hasGender) {
+            query.setParameter("gender", gender.trim());
+        }
+        if (hasCursor) {
+            query.setParameter("afterNo", afterNo);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    // LIKE 使用 '!' 作为转义符（HQL 字符串字面量中的反斜杠本身是转义符）
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.seatingsystem.repository;
 
 import com.example.seatingsystem.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,5 +17,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param username 登录用户名
      * @return 包含 User 对象的 Optional
      */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "query.user")
+    })
     Optional<User> findByUsername(String username);
 }
\ No newline at end of file
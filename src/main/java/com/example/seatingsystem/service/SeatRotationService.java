@@ -0,0 +1,26 @@
+package com.example.seatingsystem.service;
+
+import com.example.seatingsystem.model.RotationReport;
+import com.example.seatingsystem.model.SeatingResult;
+
+import java.util.function.IntConsumer;
+
+public interface SeatRotationService {
+
+    /**
+     * 对所有班级执行一次座位轮换：以最新排座记录为基础生成下一次排座并保存为新记录
+     * @param dryRun 为 true 时只报告将要发生的变化，不保存
+     */
+    RotationReport rotateAll(boolean dryRun);
+
+    /**
+     * 同 rotateAll(dryRun)，每处理完一批班级回调一次进度（0-100）
+     */
+    RotationReport rotateAll(boolean dryRun, IntConsumer progressListener);
+
+    /**
+     * 将排座结果整体平移：第 r 行移到第 r+rowShift 行，第 c 列移到第 c+colShift 列（超出边界回绕）
+     * 返回新的结果，不修改传入对象
+     */
+    SeatingResult rotate(SeatingResult current, int rowShift, int colShift);
+}
@@ -0,0 +1,32 @@
+package com.example.seatingsystem.service;
+
+import com.example.seatingsystem.entity.SeatPositionStat;
+import com.example.seatingsystem.model.SeatFairnessEntry;
+import com.example.seatingsystem.model.SeatingResult;
+
+import java.util.List;
+import java.util.Map;
+
+public interface SeatStatService {
+
+    /**
+     * 将一次排座结果累加到班级的座位区域统计（随排座记录的保存在同一事务中执行）
+     */
+    void recordArrangement(Long classId, SeatingResult result);
+
+    /**
+     * 按时间顺序流式读取班级全部排座记录，重新计算座位区域统计
+     * @return 处理的排座记录数
+     */
+    int rebuild(Long classId);
+
+    /**
+     * 班级公平性报告：每个在读学生在前/中/后排、左/中/右侧就座的累计次数
+     */
+    List<SeatFairnessEntry> getFairnessReport(Long classId);
+
+    /**
+     * 班级的座位区域统计，按学生ID索引（公平排座使用）
+     */
+    Map<Long, SeatPositionStat> getStatsByStudent(Long classId);
+}
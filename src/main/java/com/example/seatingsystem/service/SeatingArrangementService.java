@@ -2,15 +2,25 @@ package com.example.seatingsystem.service;
 
 import com.example.seatingsystem.entity.Classroom;
 import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.model.ArrangementDiff;
+import com.example.seatingsystem.model.ArrangementVersion;
+import com.example.seatingsystem.model.OptimizedSeatingResult;
+import com.example.seatingsystem.model.SeatPatchRequest;
+import com.example.seatingsystem.model.SeatingCandidate;
+import com.example.seatingsystem.model.SeatingRecordPage;
 import com.example.seatingsystem.model.SeatingResult;
 
-import java.io.ByteArrayOutputStream; // ❗ 新增导入
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface SeatingArrangementService {
 
+    int MAX_CANDIDATES = 20; // 一次最多生成的候选方案数
+    int MAX_PATCH_OPERATIONS = 500; // 一次座位调整最多包含的操作数
+
     /**
      * 初始化或更新班级的座位布局（行/列数）
      */
@@ -18,7 +28,24 @@ public interface SeatingArrangementService {
     /**
      * 核心算法：生成随机座位排布
      */
-    SeatingResult randomArrange(Long classId);
+    SeatingCandidate randomArrange(Long classId);
+    /**
+     * 用指定种子生成随机排布，名单和布局不变时相同种子得到相同结果
+     */
+    SeatingCandidate randomArrange(Long classId, long seed);
+    /**
+     * 一次加载名单和布局，并行生成多个随机候选方案（每个方案使用独立的随机流并附带种子）
+     * @param count 候选方案数量，不超过 MAX_CANDIDATES
+     */
+    List<SeatingCandidate> generateCandidates(Long classId, int count);
+    /**
+     * 约束优化排座：综合男女搭配、分组相邻/分开等约束，在时间预算内搜索罚分最低的排布
+     */
+    OptimizedSeatingResult optimizedArrange(Long classId);
+    /**
+     * 公平排座：在约束优化的基础上参考座位区域统计，让学生尽量坐到过去坐得少的区域
+     */
+    OptimizedSeatingResult fairArrange(Long classId);
     /**
      * 根据行数和列数，生成一个空的 SeatingResult 结构
      */
@@ -26,13 +53,30 @@ public interface SeatingArrangementService {
 
     /**
      * 保存当前排座结果的快照
+     * @throws RuntimeException 行列数与班级当前布局不一致，或座位越界、重复分配
      */
     SeatingRecord saveArrangement(Long classId, SeatingResult result, String recordName);
 
     /**
-     * 根据班级ID获取历史排座记录
+     * 座位级调整：在班级当前排座上按顺序执行一批 move/swap/clear/place 操作，全部成功才保存为新记录
+     * @return 新记录相对调整前排座的变化座位
+     * @throws org.springframework.dao.OptimisticLockingFailureException baseRecordId 不是班级当前最新记录
+     * @throws RuntimeException 班级不存在、布局已变更、操作不合法或学生不在名单中
      */
-    List<SeatingRecord> getRecordsByClassId(Long classId);
+    ArrangementDiff patchArrangement(Long classId, SeatPatchRequest request);
+
+    /**
+     * 分页获取班级的历史排座记录摘要（按创建时间倒序，不含布局快照）
+     * @param beforeTime 上一页最后一条记录的创建时间，第一页传 null
+     * @param beforeId 上一页最后一条记录的ID，第一页传 null
+     * @param size 每页条数
+     */
+    SeatingRecordPage getRecordSummaries(Long classId, LocalDateTime beforeTime, Long beforeId, int size);
+
+    /**
+     * 获取某条历史排座记录的座位布局
+     */
+    Optional<SeatingResult> getRecordArrangement(Long classId, Long recordId);
 
     /**
      * 获取最新的排座记录（作为当前座位状态）
@@ -40,9 +84,16 @@ public interface SeatingArrangementService {
     Optional<SeatingResult> getLatestArrangement(Long classId);
 
     /**
-     * 新增：导出当前排座结果为 PDF
+     * 获取班级当前排座的版本（用于 ETag / Last-Modified），不加载排座快照
+     * @throws RuntimeException 班级不存在
+     */
+    ArrangementVersion getArrangementVersion(Long classId);
+
+    /**
+     * 导出当前排座结果为 PDF，边生成边写入输出流
+     * 班级不存在或尚无排座记录时，在写出任何字节之前抛出 RuntimeException
      * @param classId 班级ID
-     * @return 包含 PDF 字节数据的 ByteArrayOutputStream
+     * @param out     PDF 输出流（调用方负责关闭）
      */
-    ByteArrayOutputStream exportSeatingToPdf(Long classId) throws Exception; // ❗ 新增方法
+    void exportSeatingToPdf(Long classId, OutputStream out) throws Exception;
 }
\ No newline at end of file
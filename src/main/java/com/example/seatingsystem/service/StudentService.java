@@ -1,8 +1,13 @@
 package com.example.seatingsystem.service;
 
 import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.RosterImportResult;
+import com.example.seatingsystem.model.StudentRosterPage;
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface StudentService {
@@ -12,6 +17,29 @@ public interface StudentService {
      */
     List<Student> getActiveStudentsByClassId(Long classId);
 
+    /**
+     * 分页获取班级活跃学生名单（按学号、ID 升序的键集分页）
+     * @param keyword        按姓名或学号模糊筛选，可为空
+     * @param gender         按性别筛选，可为空
+     * @param afterNo        上一页最后一行的学号，第一页传 null
+     * @param afterId        上一页最后一行的ID，第一页传 null
+     * @param size           每页条数
+     * @param withCustomInfo 是否返回自定义信息
+     */
+    StudentRosterPage getRosterPage(Long classId, String keyword, String gender,
+                                    String afterNo, Long afterId, int size, boolean withCustomInfo);
+
+    /**
+     * 统计指定班级的活跃学生人数
+     */
+    int countActiveStudentsByClassId(Long classId);
+
+    /**
+     * 统计教师名下各班级的活跃学生人数
+     * @return 班级ID -> 人数（没有活跃学生的班级不在其中）
+     */
+    Map<Long, Integer> countActiveStudentsByTeacherId(Long teacherId);
+
     /**
      * 手动添加单个学生
      */
@@ -28,15 +56,22 @@ public interface StudentService {
     Optional<Student> findByClassIdAndStudentNo(Long classId, String studentNo);
 
     /**
-     * 从 Excel 文件批量导入学生数据
+     * 从 Excel 文件批量导入学生数据（学号已存在则覆盖更新，内容未变化的行跳过）
+     * @return 新增、更新、未变化的学生数量
+     */
+    RosterImportResult importFromExcel(MultipartFile file, Long classId) throws Exception;
+
+    /**
+     * 从服务器上已有的 XLSX 文件导入（后台导入任务使用），规则同 importFromExcel
      */
-    int importFromExcel(MultipartFile file, Long classId) throws Exception;
+    RosterImportResult importFromExcelFile(File file, Long classId) throws Exception;
 
     // --- 新增：更新单个学生信息 ---
     /**
      * 更新单个学生的非核心信息（如姓名、性别、自定义信息）。
-     * @param student 包含要更新信息的 Student 对象，ID必须存在。
+     * @param student 包含要更新信息的 Student 对象，ID必须存在；classId 必须是该学生所在的班级（已校验归属的班级）
      * @return 更新后的 Student 对象
+     * @throws RuntimeException 学生不存在或不属于 classId 对应的班级
      */
     Student updateStudent(Student student);
 
@@ -44,6 +79,7 @@ public interface StudentService {
     /**
      * 根据 ID 物理删除单个学生（设置 isActive=false）。
      * @param studentId 要删除的学生的 ID
+     * @param classId   学生所在的班级ID（已校验归属的班级），学生不属于该班级时拒绝删除
      */
-    void deleteStudentById(Long studentId);
+    void deleteStudentById(Long studentId, Long classId);
 }
\ No newline at end of file
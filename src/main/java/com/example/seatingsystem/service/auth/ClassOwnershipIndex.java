@@ -0,0 +1,88 @@
+package com.example.seatingsystem.service.auth;
+
+import com.example.seatingsystem.repository.ClassroomRepository;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 会话内的班级归属索引：登录时一次性载入教师名下的班级ID，
+ * 之后的权限校验只查内存集合，不再为比较 teacherId 加载整行 Classroom
+ */
+@Component
+public class ClassOwnershipIndex {
+
+    private static final String SESSION_KEY = "ownedClassIds";
+
+    private final ClassroomRepository classroomRepository;
+
+    @Autowired
+    public ClassOwnershipIndex(ClassroomRepository classroomRepository) {
+        this.classroomRepository = classroomRepository;
+    }
+
+    /**
+     * 登录时载入教师名下全部班级ID
+     */
+    public void load(HttpSession session, Long teacherId) {
+        Set<Long> classIds = ConcurrentHashMap.newKeySet();
+        classIds.addAll(classroomRepository.findIdsByTeacherId(teacherId));
+        session.setAttribute(SESSION_KEY, classIds);
+    }
+
+    /**
+     * 当前登录的教师是否拥有该班级
+     * 集合中没有时再查一次数据库：可能是同一教师在其他会话中新建的班级
+     */
+    public boolean owns(HttpSession session, Long classId) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null || classId == null) {
+            return false;
+        }
+
+        Set<Long> classIds = classIds(session, userId);
+        if (classIds.contains(classId)) {
+            return true;
+        }
+        if (classroomRepository.existsByIdAndTeacherId(classId, userId)) {
+            classIds.add(classId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 新建班级后加入索引
+     */
+    public void grant(HttpSession session, Long classId) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId != null) {
+            classIds(session, userId).add(classId);
+        }
+    }
+
+    /**
+     * 删除班级后移出索引
+     */
+    public void revoke(HttpSession session, Long classId) {
+        @SuppressWarnings("unchecked")
+        Set<Long> classIds = (Set<Long>) session.getAttribute(SESSION_KEY);
+        if (classIds != null) {
+            classIds.remove(classId);
+        }
+    }
+
+    // 升级前已登录的会话没有索引，首次使用时补建
+    @SuppressWarnings("unchecked")
+    private Set<Long> classIds(HttpSession session, Long userId) {
+        Set<Long> classIds = (Set<Long>) session.getAttribute(SESSION_KEY);
+        if (classIds == null) {
+            load(session, userId);
+            classIds = (Set<Long>) session.getAttribute(SESSION_KEY);
+        }
+        return classIds;
+    }
+}
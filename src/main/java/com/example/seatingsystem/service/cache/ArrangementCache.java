@@ -0,0 +1,148 @@
+package com.example.seatingsystem.service.cache;
+
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 按班级缓存最新排座结果（已解析的 SeatingResult）以及对应的 PDF 字节
+ * 使用 Caffeine（W-TinyLFU 淘汰），按估算的内存占用限制总大小
+ * 缓存中的 SeatingResult 是共享实例，调用方不得修改
+ */
+@Component
+public class ArrangementCache implements MeterBinder {
+
+    private final Cache<Long, Entry> cache;
+    private final int maxPdfBytes;
+
+    public ArrangementCache(@Value("${seating.cache.max-weight-mb:64}") long maxWeightMb,
+                            @Value("${seating.cache.max-pdf-kb:1024}") int maxPdfKb) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((Long classId, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        this.maxPdfBytes = maxPdfKb * 1024;
+    }
+
+    /**
+     * 读取班级最新排座结果，未缓存时调用 loader 从数据库加载（“尚无记录”也会被缓存）
+     */
+    public Optional<SeatingResult> getArrangement(Long classId, Function<Long, Optional<SeatingResult>> loader) {
+        Entry entry = cache.get(classId, id -> new Entry(loader.apply(id).orElse(null), null));
+        return Optional.ofNullable(entry.result);
+    }
+
+    /**
+     * 读取已缓存的 PDF，没有则返回空
+     */
+    public Optional<byte[]> getPdf(Long classId) {
+        Entry entry = cache.getIfPresent(classId);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.pdf);
+    }
+
+    /**
+     * 缓存由 renderedFrom 生成的 PDF；如果期间排座结果已失效或被替换，则丢弃
+     */
+    public void putPdf(Long classId, SeatingResult renderedFrom, byte[] pdf) {
+        if (pdf.length > maxPdfBytes) {
+            return;
+        }
+        cache.asMap().computeIfPresent(classId,
+                (id, entry) -> entry.result == renderedFrom ? new Entry(entry.result, pdf) : entry);
+    }
+
+    public int getMaxPdfBytes() {
+        return maxPdfBytes;
+    }
+
+    /**
+     * 使某班级的缓存失效；在事务中调用时，提交后会再失效一次，
+     * 避免其他请求在提交前读到旧数据并重新放入缓存
+     */
+    public void invalidate(Long classId) {
+        if (classId == null) {
+            return;
+        }
+        cache.invalidate(classId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(classId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 以 cache.* 指标（cache="seating.arrangement"）导出命中、未命中、淘汰统计
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "seating.arrangement");
+    }
+
+    /**
+     * 命中、未命中、淘汰等统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+        result.put("estimatedSize", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            result.put("weightedSize", eviction.weightedSize().orElse(0L));
+            result.put("maximumWeight", eviction.getMaximum());
+        });
+        return result;
+    }
+
+    /**
+     * 缓存项：排座结果（null 表示该班级尚无排座记录）与 PDF（null 表示尚未生成）
+     */
+    private static final class Entry {
+        private final SeatingResult result;
+        private final byte[] pdf;
+
+        private Entry(SeatingResult result, byte[] pdf) {
+            this.result = result;
+            this.pdf = pdf;
+        }
+
+        // 粗略估算的内存占用（字节）
+        private int weight() {
+            int weight = 64;
+            if (result != null && result.getLayout() != null) {
+                for (SeatingPosition position : result.getLayout()) {
+                    String name = position.getStudentName();
+                    weight += 96 + (name != null ? name.length() * 2 : 0);
+                }
+            }
+            if (pdf != null) {
+                weight += pdf.length;
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.seatingsystem.service.excel;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * 基于 POI XSSF 事件模型 (SAX) 的名单读取器。
+ * 逐行解析第一个工作表并回调，不构建整个工作簿的 DOM，内存占用与行数无关。
+ */
+@Component
+public class RosterExcelReader {
+
+    private static final int COLUMN_COUNT = 4; // 学号, 姓名, 性别, 自定义信息
+
+    /**
+     * 读取 XLSX 文件第一个工作表中的学生数据（第一行为标题行，跳过）
+     * @param file     XLSX 文件
+     * @param consumer 每读到一行数据回调一次
+     * @return 读取到的数据行数
+     */
+    public int read(File file, Consumer<RosterRow> consumer) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            RowCollector collector = new RowCollector(consumer);
+            try (InputStream sheet = sheets.next()) { // 默认读取第一个工作表
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, sharedStrings, collector, new PlainNumberFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            } catch (SAXException e) {
+                // 回调中抛出的业务异常可能被 SAX 解析器包装
+                if (e.getException() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+            return collector.count;
+        }
+    }
+
+    /**
+     * "常规"格式的数字按完整数字输出（如学号 202301000001），而不是 Excel 显示用的科学计数法 2.02301E+11，
+     * 与原来 setCellType(STRING) 的结果相同；其他数字格式仍按单元格格式输出
+     */
+    private static class PlainNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (formatIndex == 0 || "General".equalsIgnoreCase(formatString)) {
+                return NumberToTextConverter.toText(value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    /**
+     * 将 SAX 单元格事件聚合为行
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<RosterRow> consumer;
+        private final String[] cells = new String[COLUMN_COUNT];
+        private boolean hasStudentNoCell;
+        private int count;
+
+        private RowCollector(Consumer<RosterRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, "");
+            hasStudentNoCell = false;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = new CellReference(cellReference).getCol();
+            if (col < COLUMN_COUNT && formattedValue != null) {
+                cells[col] = formattedValue.trim();
+                hasStudentNoCell |= col == 0;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // 假设第一行是标题行；学号列没有单元格的行直接跳过（与原 POI 读取方式一致）
+            if (rowNum == 0 || !hasStudentNoCell) {
+                return;
+            }
+            consumer.accept(new RosterRow(rowNum + 1, cells[0], cells[1], cells[2], cells[3]));
+            count++;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.seatingsystem.service.excel;
+
+/**
+ * 名单 Excel 中的一行数据（列顺序: 学号, 姓名, 性别, 自定义信息）
+ */
+public class RosterRow {
+
+    private final int rowNumber; // Excel 中的行号（从 1 开始，用于错误提示）
+    private final String studentNo;
+    private final String name;
+    private final String gender;
+    private final String customInfo;
+
+    public RosterRow(int rowNumber, String studentNo, String name, String gender, String customInfo) {
+        this.rowNumber = rowNumber;
+        this.studentNo = studentNo;
+        this.name = name;
+        this.gender = gender;
+        this.customInfo = customInfo;
+    }
+
+    public int getRowNumber() { return rowNumber; }
+    public String getStudentNo() { return studentNo; }
+    public String getName() { return name; }
+    public String getGender() { return gender; }
+    public String getCustomInfo() { return customInfo; }
+}
@@ -3,6 +3,7 @@ package com.example.seatingsystem.service.impl;
 import com.example.seatingsystem.entity.Classroom;
 import com.example.seatingsystem.repository.ClassroomRepository;
 import com.example.seatingsystem.service.ClassroomService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,10 +15,12 @@ import java.util.Optional;
 public class ClassroomServiceImpl implements ClassroomService {
 
     private final ClassroomRepository classroomRepository;
+    private final ArrangementCache arrangementCache;
 
     @Autowired
-    public ClassroomServiceImpl(ClassroomRepository classroomRepository) {
+    public ClassroomServiceImpl(ClassroomRepository classroomRepository, ArrangementCache arrangementCache) {
         this.classroomRepository = classroomRepository;
+        this.arrangementCache = arrangementCache;
     }
 
     @Override
@@ -52,6 +55,8 @@ public class ClassroomServiceImpl implements ClassroomService {
         existingClassroom.setName(updatedClassroom.getName());
         existingClassroom.setDescription(updatedClassroom.getDescription());
 
+        // 班级名称出现在 PDF 标题中，缓存的 PDF 需要失效
+        arrangementCache.invalidate(existingClassroom.getId());
         return classroomRepository.save(existingClassroom);
     }
 
@@ -65,6 +70,7 @@ public class ClassroomServiceImpl implements ClassroomService {
         // ❗ 核心修正：由于 seating.sql 已添加 ON DELETE CASCADE，
         // 当删除 Classroom 记录时，所有关联的 Student, SeatingRecord, StudentGroup 记录将被自动删除。
         classroomRepository.delete(classroom);
+        arrangementCache.invalidate(classId);
         // 如果删除成功，则无需额外的 try-catch 块。
     }
 }
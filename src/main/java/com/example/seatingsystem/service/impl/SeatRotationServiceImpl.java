@@ -0,0 +1,239 @@
+package com.example.seatingsystem.service.impl;
+
+import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.model.RotationReport;
+import com.example.seatingsystem.model.RotationReport.ClassRotation;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.repository.ClassroomRepository;
+import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.service.SeatRotationService;
+import com.example.seatingsystem.service.SeatingArrangementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * 批量座位轮换：按ID分批读取班级，每批在固定大小的线程池中并行处理，
+ * 任意时刻内存中只保留一批班级及其最新快照。
+ */
+@Service
+public class SeatRotationServiceImpl implements SeatRotationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatRotationServiceImpl.class);
+
+    private final ClassroomRepository classroomRepository;
+    private final SeatingRecordRepository seatingRecordRepository;
+    private final SeatingArrangementService seatingArrangementService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<SeatRotationService> self; // 经代理调用，使 @Timed 也记录定时轮换
+    private final int rowShift;
+    private final int colShift;
+    private final int chunkSize;
+    private final boolean scheduledDryRun;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean(false); // 防止定时任务与手动触发重叠执行
+
+    @Autowired
+    public SeatRotationServiceImpl(ClassroomRepository classroomRepository,
+                                   SeatingRecordRepository seatingRecordRepository,
+                                   SeatingArrangementService seatingArrangementService,
+                                   ObjectMapper objectMapper,
+                                   ObjectProvider<SeatRotationService> self,
+                                   @Value("${seating.rotation.row-shift:1}") int rowShift,
+                                   @Value("${seating.rotation.col-shift:1}") int colShift,
+                                   @Value("${seating.rotation.chunk-size:200}") int chunkSize,
+                                   @Value("${seating.rotation.parallelism:4}") int parallelism,
+                                   @Value("${seating.rotation.dry-run:false}") boolean scheduledDryRun) {
+        this.classroomRepository = classroomRepository;
+        this.seatingRecordRepository = seatingRecordRepository;
+        this.seatingArrangementService = seatingArrangementService;
+        this.objectMapper = objectMapper;
+        this.self = self;
+        this.rowShift = rowShift;
+        this.colShift = colShift;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.scheduledDryRun = scheduledDryRun;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 定时轮换（cron 默认为 "-" 即不启用，例如每周一早上 6 点：0 0 6 * * MON）
+     */
+    @Scheduled(cron = "${seating.rotation.cron:-}", zone = "${seating.rotation.zone:Asia/Shanghai}")
+    public void scheduledRotation() {
+        try {
+            self.getObject().rotateAll(scheduledDryRun);
+        } catch (RuntimeException e) {
+            log.warn("Scheduled seat rotation skipped: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Timed(value = "seating.rotation", description = "Bulk seat rotation across all classes")
+    public RotationReport rotateAll(boolean dryRun) {
+        return rotateAll(dryRun, progress -> { });
+    }
+
+    @Override
+    @Timed(value = "seating.rotation", description = "Bulk seat rotation across all classes")
+    public RotationReport rotateAll(boolean dryRun, IntConsumer progressListener) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("座位轮换正在进行中，请稍后再试。");
+        }
+        try {
+            long startNanos = System.nanoTime();
+            RotationReport report = new RotationReport();
+            report.setDryRun(dryRun);
+            report.setRowShift(rowShift);
+            report.setColShift(colShift);
+            String recordName = "自动轮换 - " + LocalDate.now();
+
+            // 键集分页逐批读取班级，每批并行处理完再读下一批
+            long totalClasses = Math.max(1, classroomRepository.count());
+            long afterId = 0L;
+            while (true) {
+                List<Classroom> chunk = classroomRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<Callable<ClassRotation>> tasks = new ArrayList<>(chunk.size());
+                for (Classroom classroom : chunk) {
+                    tasks.add(() -> rotateClass(classroom, dryRun, recordName));
+                }
+                for (Future<ClassRotation> future : executor.invokeAll(tasks)) {
+                    report.add(future.get());
+                }
+
+                progressListener.accept((int) Math.min(100, report.getClassesScanned() * 100 / totalClasses));
+                afterId = chunk.get(chunk.size() - 1).getId();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            report.setElapsedMs((System.nanoTime() - startNanos) / 1_000_000);
+            log.info("Seat rotation{} finished: {} classes scanned, {} rotated, {} skipped, {} failed in {} ms",
+                    dryRun ? " (dry run)" : "", report.getClassesScanned(), report.getRotated(),
+                    report.getSkipped(), report.getFailed(), report.getElapsedMs());
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("座位轮换被中断。", e);
+        } catch (ExecutionException e) {
+            // rotateClass 自行捕获异常，这里只会是意外错误
+            throw new RuntimeException("座位轮换失败: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 处理单个班级：读取最新快照、平移、保存（试运行时不保存）
+     */
+    private ClassRotation rotateClass(Classroom classroom, boolean dryRun, String recordName) {
+        Long classId = classroom.getId();
+        String className = classroom.getName();
+        try {
+            SeatLayout layout = classroom.getSeatLayout();
+            if (!layout.isConfigured()) {
+                return new ClassRotation(classId, className, RotationReport.SKIPPED, 0, "未设置座位布局");
+            }
+
+            // 直接读取最新记录，不经过排座缓存，避免批量任务把所有班级都装入缓存
+            Optional<SeatingRecord> latest = seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(classId);
+            if (latest.isEmpty()) {
+                return new ClassRotation(classId, className, RotationReport.SKIPPED, 0, "尚无排座记录");
+            }
+            SeatingResult current = objectMapper.readValue(latest.get().getLayoutSnapshot(), SeatingResult.class);
+            if (current.getRows() != layout.getRows() || current.getCols() != layout.getCols()) {
+                return new ClassRotation(classId, className, RotationReport.SKIPPED, 0, "座位布局已变更，请先手动排座");
+            }
+
+            SeatingResult next = rotate(current, rowShift, colShift);
+            int moved = countMovedStudents(current, next);
+            if (moved == 0) {
+                return new ClassRotation(classId, className, RotationReport.SKIPPED, 0, "轮换后座位无变化");
+            }
+
+            if (dryRun) {
+                return new ClassRotation(classId, className, RotationReport.WOULD_ROTATE, moved, null);
+            }
+            SeatingRecord saved = seatingArrangementService.saveArrangement(classId, next, recordName);
+            return new ClassRotation(classId, className, RotationReport.ROTATED, moved, "记录ID: " + saved.getId());
+        } catch (Exception e) {
+            log.warn("Seat rotation failed for class {}: {}", classId, e.getMessage());
+            return new ClassRotation(classId, className, RotationReport.FAILED, 0, e.getMessage());
+        }
+    }
+
+    @Override
+    public SeatingResult rotate(SeatingResult current, int rowShift, int colShift) {
+        int rows = current.getRows();
+        int cols = current.getCols();
+
+        List<SeatingPosition> layout = new ArrayList<>();
+        if (current.getLayout() != null) {
+            for (SeatingPosition position : current.getLayout()) {
+                SeatingPosition moved = new SeatingPosition();
+                moved.setRow(Math.floorMod(position.getRow() - 1 + rowShift, rows) + 1);
+                moved.setCol(Math.floorMod(position.getCol() - 1 + colShift, cols) + 1);
+                moved.setStudentId(position.getStudentId());
+                moved.setStudentName(position.getStudentName());
+                moved.setGender(position.getGender());
+                layout.add(moved);
+            }
+        }
+
+        SeatingResult next = new SeatingResult();
+        next.setRows(rows);
+        next.setCols(cols);
+        next.setLayout(layout);
+        return next;
+    }
+
+    /**
+     * 统计座位发生变化的学生数
+     */
+    int countMovedStudents(SeatingResult current, SeatingResult next) {
+        int moved = 0;
+        List<SeatingPosition> before = current.getLayout();
+        List<SeatingPosition> after = next.getLayout();
+        for (int i = 0; i < after.size(); i++) {
+            SeatingPosition from = before.get(i);
+            SeatingPosition to = after.get(i);
+            if (to.getStudentId() != null && (from.getRow() != to.getRow() || from.getCol() != to.getCol())) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+}
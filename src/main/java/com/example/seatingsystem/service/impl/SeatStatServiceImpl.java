@@ -0,0 +1,141 @@
+package com.example.seatingsystem.service.impl;
+
+import com.example.seatingsystem.entity.SeatPositionStat;
+import com.example.seatingsystem.model.SeatBands;
+import com.example.seatingsystem.model.SeatFairnessEntry;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.repository.SeatPositionStatRepository;
+import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.service.SeatStatService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 座位区域统计：保存排座时按学生累加计数，统计查询只读统计表，与历史记录条数无关
+ */
+@Service
+public class SeatStatServiceImpl implements SeatStatService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatStatServiceImpl.class);
+
+    // 计数下标：0 就座次数，1-3 前/中/后排，4-6 左/中/右侧
+    private static final int SEATED = 0, ROW_BANDS = 1, COL_BANDS = 4, COUNTER_SIZE = 7;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO seat_position_stat (class_id, student_id, seated_count, front_count, middle_count, back_count, "
+                    + "left_count, center_count, right_count, update_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE seated_count = seated_count + VALUES(seated_count), "
+                    + "front_count = front_count + VALUES(front_count), middle_count = middle_count + VALUES(middle_count), "
+                    + "back_count = back_count + VALUES(back_count), left_count = left_count + VALUES(left_count), "
+                    + "center_count = center_count + VALUES(center_count), right_count = right_count + VALUES(right_count), "
+                    + "update_time = VALUES(update_time)";
+
+    private static final String DELETE_CLASS_SQL = "DELETE FROM seat_position_stat WHERE class_id = ?";
+
+    private final SeatPositionStatRepository seatPositionStatRepository;
+    private final SeatingRecordRepository seatingRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SeatStatServiceImpl(SeatPositionStatRepository seatPositionStatRepository,
+                               SeatingRecordRepository seatingRecordRepository,
+                               JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper) {
+        this.seatPositionStatRepository = seatPositionStatRepository;
+        this.seatingRecordRepository = seatingRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public void recordArrangement(Long classId, SeatingResult result) {
+        Map<Long, int[]> counters = new LinkedHashMap<>();
+        accumulate(result, counters);
+        writeCounters(classId, counters);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild(Long classId) {
+        // 内存中只保留每个学生的计数器，快照逐条读取、解析后即丢弃
+        Map<Long, int[]> counters = new LinkedHashMap<>();
+        int records = 0;
+        try (Stream<String> snapshots = seatingRecordRepository.streamSnapshotsByClassId(classId)) {
+            for (String snapshot : (Iterable<String>) snapshots::iterator) {
+                records++;
+                try {
+                    accumulate(objectMapper.readValue(snapshot, SeatingResult.class), counters);
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable seating snapshot of class {} while rebuilding stats: {}", classId, e.getMessage());
+                }
+            }
+        }
+
+        jdbcTemplate.update(DELETE_CLASS_SQL, classId);
+        writeCounters(classId, counters);
+        log.info("Rebuilt seat position stats for class {}: {} records, {} students", classId, records, counters.size());
+        return records;
+    }
+
+    @Override
+    public List<SeatFairnessEntry> getFairnessReport(Long classId) {
+        return seatPositionStatRepository.findFairnessReport(classId);
+    }
+
+    @Override
+    public Map<Long, SeatPositionStat> getStatsByStudent(Long classId) {
+        return seatPositionStatRepository.findByClassId(classId).stream()
+                .collect(Collectors.toMap(SeatPositionStat::getStudentId, Function.identity()));
+    }
+
+    /**
+     * 将一次排座中每个已就座学生的区域计入计数器
+     */
+    private void accumulate(SeatingResult result, Map<Long, int[]> counters) {
+        if (result == null || result.getLayout() == null) {
+            return;
+        }
+        for (SeatingPosition position : result.getLayout()) {
+            if (position.getStudentId() == null) continue;
+            int[] counter = counters.computeIfAbsent(position.getStudentId(), id -> new int[COUNTER_SIZE]);
+            counter[SEATED]++;
+            counter[ROW_BANDS + SeatBands.of(position.getRow() - 1, result.getRows())]++;
+            counter[COL_BANDS + SeatBands.of(position.getCol() - 1, result.getCols())]++;
+        }
+    }
+
+    /**
+     * 批量累加到统计表（不存在的行直接插入）
+     */
+    private void writeCounters(Long classId, Map<Long, int[]> counters) {
+        if (counters.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(counters.size());
+        for (Map.Entry<Long, int[]> entry : counters.entrySet()) {
+            int[] c = entry.getValue();
+            batch.add(new Object[]{classId, entry.getKey(), c[0], c[1], c[2], c[3], c[4], c[5], c[6], now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+}
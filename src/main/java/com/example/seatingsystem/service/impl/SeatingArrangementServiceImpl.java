@@ -1,28 +1,72 @@
 package com.example.seatingsystem.service.impl;
 
 import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.entity.SeatPositionStat;
 import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.entity.SeatingSnapshot;
 import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.entity.StudentGroup;
+import com.example.seatingsystem.model.ArrangementDiff;
+import com.example.seatingsystem.model.ArrangementVersion;
+import com.example.seatingsystem.model.OptimizedSeatingResult;
+import com.example.seatingsystem.model.SeatingCandidate;
+import com.example.seatingsystem.model.SeatGrid;
+import com.example.seatingsystem.model.SeatBands;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SeatPatchOperation;
+import com.example.seatingsystem.model.SeatPatchRequest;
 import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingRecordPage;
+import com.example.seatingsystem.model.SeatingRecordSummary;
 import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.model.SpacingConfig;
 import com.example.seatingsystem.repository.ClassroomRepository;
 import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.repository.SeatingSnapshotRepository;
+import com.example.seatingsystem.repository.StudentGroupRepository;
 import com.example.seatingsystem.service.StudentService;
 import com.example.seatingsystem.service.SeatingArrangementService;
+import com.example.seatingsystem.service.SeatStatService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.metrics.SeatingMetrics;
+import com.example.seatingsystem.service.optimizer.OptimizationOutcome;
+import com.example.seatingsystem.service.optimizer.SeatingConstraint;
+import com.example.seatingsystem.service.optimizer.SeatingOptimizer;
+import com.example.seatingsystem.service.optimizer.SeatingProblem;
+import com.example.seatingsystem.service.pdf.CapturingOutputStream;
+import com.example.seatingsystem.service.pdf.CountingOutputStream;
+import com.example.seatingsystem.service.pdf.SeatingPdfFonts;
+import com.example.seatingsystem.service.push.ArrangementSavedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper; // 用于对象转JSON
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.core.io.ClassPathResource;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.io.OutputStream;
 
 // ❗ iText 导入
 import com.itextpdf.text.*;
@@ -32,23 +76,61 @@ import com.itextpdf.text.pdf.*;
 @Service
 public class SeatingArrangementServiceImpl implements SeatingArrangementService {
 
+    private static final Logger log = LoggerFactory.getLogger(SeatingArrangementServiceImpl.class);
+    private static final String DESK_LABEL = "讲台 / Blackboard";
+    private static final int MAX_RECORD_PAGE_SIZE = 100; // 历史记录每页最多条数
+    // 同一内容已存在时忽略（并发保存相同排座时不会因主键冲突失败）；用 JdbcTemplate 执行，不影响 Hibernate 二级缓存
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT IGNORE INTO seating_snapshot (content_hash, layout_snapshot, create_time) VALUES (?, ?, ?)";
+    private static final DateTimeFormatter PATCH_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final ClassroomRepository classroomRepository;
     private final SeatingRecordRepository seatingRecordRepository;
+    private final SeatingSnapshotRepository seatingSnapshotRepository; // 按内容哈希去重的布局快照
+    private final JdbcTemplate jdbcTemplate;
     private final StudentService studentService;
     private final ObjectMapper objectMapper; // 用于JSON序列化
+    private final StudentGroupRepository studentGroupRepository;
+    private final SeatingOptimizer seatingOptimizer;
+    private final List<SeatingConstraint> seatingConstraints; // 所有已注册的排座约束
+    private final SeatingPdfFonts seatingPdfFonts; // 进程级共享的 PDF 字体
+    private final ArrangementCache arrangementCache; // 按班级缓存最新排座结果和 PDF
+    private final SeatingMetrics seatingMetrics;
+    private final SeatStatService seatStatService; // 学生座位区域统计，随排座记录一起更新
+    private final ApplicationEventPublisher eventPublisher; // 保存后通知展示端推送
 
     @Autowired
     public SeatingArrangementServiceImpl(ClassroomRepository classroomRepository,
                                          SeatingRecordRepository seatingRecordRepository,
+                                         SeatingSnapshotRepository seatingSnapshotRepository,
+                                         JdbcTemplate jdbcTemplate,
                                          StudentService studentService,
-                                         ObjectMapper objectMapper) {
+                                         ObjectMapper objectMapper,
+                                         StudentGroupRepository studentGroupRepository,
+                                         SeatingOptimizer seatingOptimizer,
+                                         List<SeatingConstraint> seatingConstraints,
+                                         SeatingPdfFonts seatingPdfFonts,
+                                         ArrangementCache arrangementCache,
+                                         SeatingMetrics seatingMetrics,
+                                         SeatStatService seatStatService,
+                                         ApplicationEventPublisher eventPublisher) {
         this.classroomRepository = classroomRepository;
         this.seatingRecordRepository = seatingRecordRepository;
+        this.seatingSnapshotRepository = seatingSnapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
         this.studentService = studentService;
         this.objectMapper = objectMapper;
+        this.studentGroupRepository = studentGroupRepository;
+        this.seatingOptimizer = seatingOptimizer;
+        this.seatingConstraints = seatingConstraints;
+        this.seatingPdfFonts = seatingPdfFonts;
+        this.arrangementCache = arrangementCache;
+        this.seatingMetrics = seatingMetrics;
+        this.seatStatService = seatStatService;
+        this.eventPublisher = eventPublisher;
     }
 
-    // JSON 格式示例：{"rows":6, "cols":8, "layout": []}
+    // 布局以 SeatLayout / SpacingConfig 保存，写入前完成校验，列中仍为 JSON：{"rows":6,"cols":8}
     @Override
     @Transactional
     public Classroom updateLayout(Long classId, int rows, int cols, String rowSpacingConfigJson, String colSpacingConfigJson) {
@@ -56,175 +138,519 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
                 .orElseThrow(() -> new RuntimeException("班级不存在。"));
 
         // ❗ 核心验证：座位数 < 人数时，不允许保存
-        List<Student> students = studentService.getActiveStudentsByClassId(classId);
-        if (rows * cols < students.size()) {
-            throw new RuntimeException("总座位数 (" + (rows * cols) + ") 小于学生总人数 (" + students.size() + ")，请增加行/列数！");
+        int studentCount = studentService.countActiveStudentsByClassId(classId);
+        if (rows * cols < studentCount) {
+            throw new RuntimeException("总座位数 (" + (rows * cols) + ") 小于学生总人数 (" + studentCount + ")，请增加行/列数！");
         }
 
         try {
-            // 构造新的布局信息（JSON 字符串）
-            String layoutJson = String.format("{\"rows\":%d, \"cols\":%d}", rows, cols);
-            classroom.setSeatLayout(layoutJson);
+            classroom.setSeatLayout(SeatLayout.of(rows, cols));
 
-            // ❗ 保存间距配置 (直接保存传入的 JSON 字符串)
-            classroom.setRowSpacingConfig(rowSpacingConfigJson);
-            classroom.setColSpacingConfig(colSpacingConfigJson);
+            // ❗ 保存间距配置（解析并校验传入的 JSON 字符串）
+            classroom.setRowSpacingConfig(SpacingConfig.fromJson(rowSpacingConfigJson));
+            classroom.setColSpacingConfig(SpacingConfig.fromJson(colSpacingConfigJson));
 
+            arrangementCache.invalidate(classId);
             return classroomRepository.save(classroom);
-        } catch (RuntimeException e) {
-            throw e; // 重新抛出自定义运行时异常
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
             throw new RuntimeException("更新座位布局失败: " + e.getMessage());
         }
     }
 
 
     /**
-     * 核心算法：生成随机座位排布
+     * 核心算法：生成随机座位排布（随机选取种子）
+     */
+    @Override
+    @Timed(value = "seating.arrangement.random", description = "Random seat arrangement")
+    public SeatingCandidate randomArrange(Long classId) {
+        return randomArrange(classId, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * 用指定种子生成随机排布
      */
     @Override
-    public SeatingResult randomArrange(Long classId) {
-        // 1. 获取班级布局信息 (需要解析 JSON 字符串)
+    @Timed(value = "seating.arrangement.random", description = "Random seat arrangement")
+    public SeatingCandidate randomArrange(Long classId, long seed) {
+        // 1. 获取班级布局信息（实体加载时已解析为 SeatLayout）
         Classroom classroom = classroomRepository.findById(classId)
                 .orElseThrow(() -> new RuntimeException("班级不存在。"));
+        SeatLayout layout = requireLayout(classroom);
 
-        int rows = 0;
-        int cols = 0;
+        // 2. 获取所有活跃学生（按学号排序，保证同一种子可复现）
+        List<Student> students = studentService.getActiveStudentsByClassId(classId);
+        seatingMetrics.recordArrangedRoster(students.size());
 
-        try {
-            String layoutJson = classroom.getSeatLayout();
+        return shuffleIntoSeats(students, layout, seed);
+    }
 
-            // ❗ 检查逻辑：如果座位布局为空，则抛出异常要求用户先设置布局
-            if (layoutJson == null || layoutJson.isEmpty()) {
-                throw new RuntimeException("请先设置班级的座位行数和列数。");
-            }
+    /**
+     * 并行生成多个候选方案：名单和布局只加载一次，各方案只读共享
+     */
+    @Override
+    @Timed(value = "seating.arrangement.candidates", description = "Parallel random candidate arrangements")
+    public List<SeatingCandidate> generateCandidates(Long classId, int count) {
+        if (count < 1 || count > MAX_CANDIDATES) {
+            throw new RuntimeException("候选方案数量必须在 1 到 " + MAX_CANDIDATES + " 之间。");
+        }
 
-            // ❗ 修正：使用 ObjectMapper 解析 JSON 结构 {"rows": R, "cols": C}
-            @SuppressWarnings("unchecked")
-            java.util.Map<String, Integer> layoutMap = objectMapper.readValue(layoutJson, java.util.Map.class);
+        Classroom classroom = classroomRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("班级不存在。"));
+        SeatLayout layout = requireLayout(classroom);
 
-            rows = layoutMap.getOrDefault("rows", 0);
-            cols = layoutMap.getOrDefault("cols", 0);
+        List<Student> students = List.copyOf(studentService.getActiveStudentsByClassId(classId));
+        seatingMetrics.recordArrangedRoster(students.size());
 
-            // 验证解析结果
-            if (rows <= 0 || cols <= 0) {
-                throw new RuntimeException("座位布局配置数据无效，请重新设置。");
-            }
+        // 先顺序取出各方案的种子，再并行生成；每个方案从自己的种子新建随机流，互不干扰
+        SplittableRandom root = new SplittableRandom();
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = root.nextLong();
+        }
 
-        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-            // 捕获 JSON 解析错误
-            throw new RuntimeException("座位布局配置解析错误，请联系管理员。", e);
-        } catch (RuntimeException e) {
-            throw e; // 重新抛出自定义运行时异常 (如“请先设置布局”)
-        } catch (Exception e) {
-            throw new RuntimeException("获取座位布局失败: " + e.getMessage());
+        return Arrays.stream(seeds)
+                .parallel()
+                .mapToObj(seed -> shuffleIntoSeats(students, layout, seed))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 用种子对学生顺序做 Fisher-Yates 洗牌，按行列顺序依次入座，剩余座位保持为空
+     * 不修改传入的名单
+     */
+    private SeatingCandidate shuffleIntoSeats(List<Student> students, SeatLayout layout, long seed) {
+        int rows = layout.getRows();
+        int cols = layout.getCols();
+
+        int[] order = new int[students.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
         }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        SeatGrid grid = new SeatGrid(rows, cols);
+        int studentCount = Math.min(order.length, rows * cols);
+        for (int i = 0; i < studentCount; i++) {
+            grid.place(new SeatingPosition(i / cols + 1, i % cols + 1, students.get(order[i])));
+        }
+
+        SeatingCandidate candidate = new SeatingCandidate();
+        candidate.setRows(rows);
+        candidate.setCols(cols);
+        candidate.setLayout(grid.toLayout());
+        candidate.setSeed(seed);
+        return candidate;
+    }
+
+    /**
+     * 获取班级的座位布局，尚未设置行列数时抛出异常要求用户先设置
+     */
+    private SeatLayout requireLayout(Classroom classroom) {
+        SeatLayout layout = classroom.getSeatLayout();
+        if (!layout.isConfigured()) {
+            throw new RuntimeException("请先设置班级的座位行数和列数。");
+        }
+        return layout;
+    }
+
+    /**
+     * 约束优化排座：读取学生和分组，交给模拟退火求解器搜索
+     */
+    @Override
+    public OptimizedSeatingResult optimizedArrange(Long classId) {
+        return optimize(classId, false);
+    }
+
+    /**
+     * 公平排座：在约束优化的基础上，让学生尽量坐到过去坐得少的区域
+     */
+    @Override
+    public OptimizedSeatingResult fairArrange(Long classId) {
+        return optimize(classId, true);
+    }
+
+    private OptimizedSeatingResult optimize(Long classId, boolean fair) {
+        Classroom classroom = classroomRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("班级不存在。"));
 
+        SeatLayout layout = requireLayout(classroom);
+        int rows = layout.getRows();
+        int cols = layout.getCols();
 
-        // 2. 获取所有活跃学生
         List<Student> students = studentService.getActiveStudentsByClassId(classId);
+        if (rows * cols < students.size()) {
+            throw new RuntimeException("总座位数 (" + (rows * cols) + ") 小于学生总人数 (" + students.size() + ")，请增加行/列数！");
+        }
 
-        // 3. 核心：随机打乱学生顺序
-        Collections.shuffle(students);
+        // 1. 学生ID -> 问题内部下标
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            indexById.put(students.get(i).getId(), i);
+        }
 
-        // 4. 生成座位结果
-        List<SeatingPosition> layout = new ArrayList<>();
-        int studentIndex = 0;
+        // 2. 将分组转换为“在一起”/“需要分开”两类下标数组
+        List<int[]> together = new ArrayList<>();
+        List<int[]> apart = new ArrayList<>();
+        for (StudentGroup group : studentGroupRepository.findByClassId(classId)) {
+            int[] members = parseGroupMembers(group.getStudentIds(), indexById);
+            if (members.length < 2) continue;
+            if (StudentGroup.TYPE_APART.equals(group.getGroupType())) {
+                apart.add(members);
+            } else {
+                together.add(members);
+            }
+        }
 
-        for (int r = 1; r <= rows; r++) {
-            for (int c = 1; c <= cols; c++) {
-                Student student = null;
+        SeatingProblem problem = new SeatingProblem(rows, cols, students,
+                together.toArray(new int[0][]), apart.toArray(new int[0][]),
+                fair ? bandShares(classId, students) : null);
 
-                if (studentIndex < students.size()) {
-                    // 只要有学生，就按顺序分配
-                    student = students.get(studentIndex);
-                    studentIndex++;
-                }
+        // 3. 求解并构造结果
+        OptimizationOutcome outcome = seatingOptimizer.optimize(problem, seatingConstraints);
+        int[] studentAtSeat = outcome.getStudentAtSeat();
 
-                // 创建 SeatingPosition，未分配学生的座位 student=null
-                layout.add(new SeatingPosition(r, c, student));
+        SeatGrid grid = new SeatGrid(rows, cols);
+        for (int seat = 0; seat < studentAtSeat.length; seat++) {
+            if (studentAtSeat[seat] >= 0) {
+                grid.place(new SeatingPosition(seat / cols + 1, seat % cols + 1, students.get(studentAtSeat[seat])));
             }
         }
 
-        // 5. 构造结果对象
-        SeatingResult result = new SeatingResult();
+        OptimizedSeatingResult result = new OptimizedSeatingResult();
         result.setRows(rows);
         result.setCols(cols);
-        result.setLayout(layout);
-
+        result.setLayout(grid.toLayout());
+        result.setScore(outcome.getScore());
+        result.setIterations(outcome.getIterations());
         return result;
     }
 
+    /**
+     * 每个学生过去坐在各区域的比例（按学生下标排列，尚无统计的学生为 null）
+     */
+    private double[][] bandShares(Long classId, List<Student> students) {
+        Map<Long, SeatPositionStat> stats = seatStatService.getStatsByStudent(classId);
+        double[][] shares = new double[students.size()][];
+        for (int i = 0; i < students.size(); i++) {
+            SeatPositionStat stat = stats.get(students.get(i).getId());
+            if (stat == null || stat.getSeatedCount() == 0) continue;
+            double seated = stat.getSeatedCount();
+            int[] rowBands = stat.getRowBandCounts();
+            int[] colBands = stat.getColBandCounts();
+            double[] share = new double[SeatBands.BAND_COUNT * 2];
+            for (int band = 0; band < SeatBands.BAND_COUNT; band++) {
+                share[band] = rowBands[band] / seated;
+                share[SeatBands.BAND_COUNT + band] = colBands[band] / seated;
+            }
+            shares[i] = share;
+        }
+        return shares;
+    }
+
+    /**
+     * 解析分组的学生ID列表（逗号分隔或 JSON 数组），忽略不在当前活跃名单中的学生
+     */
+    private int[] parseGroupMembers(String studentIds, Map<Long, Integer> indexById) {
+        if (studentIds == null || studentIds.isBlank()) {
+            return new int[0];
+        }
+        String[] tokens = studentIds.replace("[", "").replace("]", "").split(",");
+        Set<Integer> members = new LinkedHashSet<>();
+        for (String token : tokens) {
+            String trimmed = token.trim().replace("\"", "");
+            if (trimmed.isEmpty()) continue;
+            try {
+                Integer index = indexById.get(Long.parseLong(trimmed));
+                if (index != null) members.add(index);
+            } catch (NumberFormatException ignored) {
+                // 非法 ID 直接跳过
+            }
+        }
+        return members.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     /**
      * 保存当前排座结果的快照
+     * 快照按规范化 JSON 的 SHA-256 去重：内容已存在时只插入一条引用它的记录
      */
     @Override
     @Transactional
+    @Timed(value = "seating.arrangement.save", description = "Saving a seating record")
     public SeatingRecord saveArrangement(Long classId, SeatingResult result, String recordName) {
+        // 行列数必须与班级当前布局一致（请求体中的行列数不可信，也避免保存按旧布局生成的排座）
+        SeatLayout layout = classroomRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("班级不存在。"))
+                .getSeatLayout();
+        if (result.getRows() != layout.getRows() || result.getCols() != layout.getCols()) {
+            throw new RuntimeException("保存排座记录失败：排座的行列数与班级当前布局（" + layout.getRows() + " 行 "
+                    + layout.getCols() + " 列）不一致，请重新排座。");
+        }
+
+        // 校验座位数据：越界、重复分配的座位或学生直接拒绝
+        SeatGrid grid;
+        try {
+            grid = result.grid();
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("保存排座记录失败：" + e.getMessage());
+        }
+
         SeatingRecord record = new SeatingRecord();
         record.setClassId(classId);
         record.setRecordName(recordName);
+        record.setSeatCount(grid.getOccupiedCount());
 
+        String snapshotJson;
         try {
-            // 核心：将 SeatingResult 对象转换为 JSON 字符串存储
-            String snapshotJson = objectMapper.writeValueAsString(result);
-            record.setLayoutSnapshot(snapshotJson);
+            // 核心：规范化为只含有人座位、按行列排序的 SeatingResult 再转换为 JSON，
+            // 同一排座无论座位顺序、空座写法或附带的评分字段如何，都得到相同的快照
+            snapshotJson = objectMapper.writeValueAsString(grid.toResult());
         } catch (Exception e) {
             throw new RuntimeException("保存排座记录失败，JSON 序列化错误。");
         }
+        String snapshotHash = SeatingSnapshot.hashOf(snapshotJson);
+        record.setSnapshotHash(snapshotHash);
+
+        // 先按主键判断，已存在的快照不再传输 JSON；并发写入同一内容时由 INSERT IGNORE 兜底
+        boolean stored = !seatingSnapshotRepository.existsById(snapshotHash)
+                && jdbcTemplate.update(INSERT_SNAPSHOT_SQL, snapshotHash, snapshotJson, LocalDateTime.now()) > 0;
+        seatingMetrics.recordSnapshotSave(snapshotJson.getBytes(StandardCharsets.UTF_8).length, stored);
+
+        SeatingRecord saved = seatingRecordRepository.save(record);
+        seatStatService.recordArrangement(classId, result); // 增量更新座位区域统计
+        arrangementCache.invalidate(classId);
+        eventPublisher.publishEvent(new ArrangementSavedEvent(classId, saved.getId(), result)); // 提交后推送
+        return saved;
+    }
+
+
+    /**
+     * 座位级调整：锁定班级行后确认 baseRecordId 仍是最新记录且与当前布局一致，在快照的副本上执行操作，
+     * 校验涉及的学生都在当前名单中，再保存为新记录；任一操作失败则整批不生效
+     */
+    @Override
+    @Transactional
+    @Timed(value = "seating.arrangement.patch", description = "Applying seat-level edits to the current arrangement")
+    public ArrangementDiff patchArrangement(Long classId, SeatPatchRequest request) {
+        List<SeatPatchOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("没有需要保存的座位调整。");
+        }
+        if (operations.size() > MAX_PATCH_OPERATIONS) {
+            throw new RuntimeException("一次最多提交 " + MAX_PATCH_OPERATIONS + " 个座位调整。");
+        }
+
+        // 1. 行锁保证检查最新记录和保存新记录之间没有其他调整插入
+        Classroom classroom = classroomRepository.findByIdForUpdate(classId)
+                .orElseThrow(() -> new RuntimeException("班级不存在。"));
+
+        // 2. 当前排座必须就是前端所基于的记录，否则说明已被其他人修改
+        Optional<SeatingRecord> latest = seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(classId);
+        Long currentRecordId = latest.map(SeatingRecord::getId).orElse(null);
+        if (!Objects.equals(currentRecordId, request.getBaseRecordId())) {
+            throw new OptimisticLockingFailureException("当前排座已被修改，请刷新后重试。");
+        }
+
+        // 3. 基于直接解析的快照（而不是缓存中的共享实例）构建两份网格：调整前 / 调整后
+        //    网格大小以班级当前布局为准，布局修改后旧排座不能再直接调整
+        SeatLayout layout = requireLayout(classroom);
+        SeatingResult base;
+        if (latest.isPresent()) {
+            base = parseSnapshot(latest.get(), classId);
+            if (base == null) {
+                throw new RuntimeException("当前排座记录已损坏，无法调整。");
+            }
+            if (base.getRows() != layout.getRows() || base.getCols() != layout.getCols()) {
+                throw new RuntimeException("班级座位布局已变更（当前 " + layout.getRows() + " 行 " + layout.getCols()
+                        + " 列），与最新排座（" + base.getRows() + " 行 " + base.getCols() + " 列）不一致，请先重新排座后再调整。");
+            }
+        } else {
+            base = new SeatGrid(layout.getRows(), layout.getCols()).toResult();
+        }
+        SeatGrid before;
+        SeatGrid after;
+        try {
+            before = base.grid();
+            after = SeatGrid.from(base);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("当前排座记录已损坏，无法调整：" + e.getMessage());
+        }
 
-        return seatingRecordRepository.save(record);
+        // 4. 依次执行操作，移动后的座位按当前名单刷新姓名和性别
+        Map<Long, Student> roster = studentService.getActiveStudentsByClassId(classId).stream()
+                .collect(Collectors.toMap(Student::getId, student -> student));
+        for (int i = 0; i < operations.size(); i++) {
+            applyPatchOperation(after, operations.get(i), i + 1, roster);
+        }
+
+        String recordName = request.getRecordName() == null || request.getRecordName().isBlank()
+                ? "座位调整 - " + LocalDateTime.now().format(PATCH_NAME_FORMAT)
+                : request.getRecordName().trim();
+        SeatingRecord saved = saveArrangement(classId, after.toResult(), recordName);
+        return new ArrangementDiff(saved.getId(), currentRecordId, after.getRows(), after.getCols(), after.changesFrom(before));
     }
 
+    /**
+     * 在网格上执行一个座位调整操作
+     * @param number 操作序号（从 1 开始，用于错误信息）
+     */
+    private void applyPatchOperation(SeatGrid grid, SeatPatchOperation operation, int number, Map<Long, Student> roster) {
+        String prefix = "第 " + number + " 个调整";
+        requireSeat(grid, operation.getRow(), operation.getCol(), prefix);
+        String type = operation.getType() == null ? "" : operation.getType();
+
+        switch (type) {
+            case SeatPatchOperation.MOVE, SeatPatchOperation.SWAP -> {
+                if (operation.getToRow() == null || operation.getToCol() == null) {
+                    throw new RuntimeException(prefix + "缺少目标座位。");
+                }
+                int toRow = operation.getToRow();
+                int toCol = operation.getToCol();
+                requireSeat(grid, toRow, toCol, prefix);
+                if (toRow == operation.getRow() && toCol == operation.getCol()) {
+                    throw new RuntimeException(prefix + "的起始座位和目标座位相同。");
+                }
+
+                SeatingPosition source = grid.get(operation.getRow(), operation.getCol());
+                SeatingPosition target = grid.get(toRow, toCol);
+                if (SeatPatchOperation.MOVE.equals(type)) {
+                    if (source == null) {
+                        throw new RuntimeException(prefix + "的起始座位 (" + operation.getRow() + "-" + operation.getCol() + ") 是空座。");
+                    }
+                    if (target != null) {
+                        throw new RuntimeException(prefix + "的目标座位 (" + toRow + "-" + toCol + ") 已有学生，请使用交换。");
+                    }
+                }
+                grid.remove(operation.getRow(), operation.getCol());
+                grid.remove(toRow, toCol);
+                if (source != null) {
+                    grid.place(seatOf(source.getStudentId(), toRow, toCol, roster, prefix));
+                }
+                if (target != null) {
+                    grid.place(seatOf(target.getStudentId(), operation.getRow(), operation.getCol(), roster, prefix));
+                }
+            }
+            case SeatPatchOperation.CLEAR -> {
+                if (grid.remove(operation.getRow(), operation.getCol()) == null) {
+                    throw new RuntimeException(prefix + "的座位 (" + operation.getRow() + "-" + operation.getCol() + ") 已是空座。");
+                }
+            }
+            case SeatPatchOperation.PLACE -> {
+                if (operation.getStudentId() == null) {
+                    throw new RuntimeException(prefix + "缺少学生。");
+                }
+                if (grid.get(operation.getRow(), operation.getCol()) != null) {
+                    throw new RuntimeException(prefix + "的座位 (" + operation.getRow() + "-" + operation.getCol() + ") 已有学生。");
+                }
+                if (grid.findByStudent(operation.getStudentId()) != null) {
+                    throw new RuntimeException(prefix + "的学生已经有座位。");
+                }
+                grid.place(seatOf(operation.getStudentId(), operation.getRow(), operation.getCol(), roster, prefix));
+            }
+            default -> throw new RuntimeException(prefix + "的类型不支持：" + operation.getType());
+        }
+    }
+
+    private void requireSeat(SeatGrid grid, int row, int col, String prefix) {
+        if (grid.indexOf(row, col) < 0) {
+            throw new RuntimeException(prefix + "的座位 (" + row + "-" + col + ") 超出布局范围。");
+        }
+    }
+
+    /**
+     * 按当前名单生成座位信息，学生已不在名单中（已删除或停用）时拒绝
+     */
+    private SeatingPosition seatOf(Long studentId, int row, int col, Map<Long, Student> roster, String prefix) {
+        Student student = roster.get(studentId);
+        if (student == null) {
+            throw new RuntimeException(prefix + "涉及的学生（ID: " + studentId + "）不在当前名单中。");
+        }
+        return new SeatingPosition(row, col, student);
+    }
 
     // SeatingArrangementServiceImpl.java (新增 generateEmptyLayout 方法)
 
     @Override
     public SeatingResult generateEmptyLayout(Long classId, int rows, int cols) {
-        List<SeatingPosition> layout = new ArrayList<>();
+        // 空布局不再为每个空座创建对象，前端会按行列数补齐空座
+        return new SeatGrid(rows, cols).toResult();
+    }
 
-        for (int r = 1; r <= rows; r++) {
-            for (int c = 1; c <= cols; c++) {
-                // 创建空座位：student=null
-                layout.add(new SeatingPosition(r, c, null));
-            }
+    @Override
+    public SeatingRecordPage getRecordSummaries(Long classId, LocalDateTime beforeTime, Long beforeId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_RECORD_PAGE_SIZE));
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<SeatingRecordSummary> summaries = (beforeTime == null || beforeId == null)
+                ? seatingRecordRepository.findSummaries(classId, limit)
+                : seatingRecordRepository.findSummariesBefore(classId, beforeTime, beforeId, limit);
+
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
         }
-
-        SeatingResult result = new SeatingResult();
-        result.setRows(rows);
-        result.setCols(cols);
-        result.setLayout(layout);
-        return result;
+        return new SeatingRecordPage(new ArrayList<>(summaries), hasMore);
     }
 
     @Override
-    public List<SeatingRecord> getRecordsByClassId(Long classId) {
-        return seatingRecordRepository.findByClassIdOrderByCreateTimeDesc(classId);
+    public Optional<SeatingResult> getRecordArrangement(Long classId, Long recordId) {
+        return seatingRecordRepository.findByIdAndClassId(recordId, classId)
+                .map(record -> parseSnapshot(record, classId));
     }
 
     /**
      * 实现：获取最新的排座记录（作为当前座位状态）
+     * 结果按班级缓存，保存排座、修改布局或学生信息时失效；返回的对象是共享实例，不要修改
      */
     @Override
+    @Timed(value = "seating.arrangement.latest", description = "Loading the current arrangement of a class")
     public Optional<SeatingResult> getLatestArrangement(Long classId) {
-        // 1. 获取最新的记录 (Repository 已经按时间倒序排序)
-        List<SeatingRecord> records = seatingRecordRepository.findByClassIdOrderByCreateTimeDesc(classId);
+        return arrangementCache.getArrangement(classId, this::loadLatestArrangement);
+    }
+
+    @Override
+    public ArrangementVersion getArrangementVersion(Long classId) {
+        Classroom classroom = classroomRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("班级不存在。"));
+        // 只查最新一条记录的摘要，不读取布局快照
+        List<SeatingRecordSummary> latest = seatingRecordRepository.findSummaries(classId, PageRequest.of(0, 1));
+        SeatingRecordSummary record = latest.isEmpty() ? null : latest.get(0);
+        return new ArrangementVersion(classId,
+                record == null ? null : record.getId(),
+                record == null ? null : record.getCreateTime(),
+                classroom.getUpdateTime(),
+                classroom.getRosterVersion());
+    }
+
+    private Optional<SeatingResult> loadLatestArrangement(Long classId) {
+        // 1. 只获取最新的一条记录，不加载整个历史
+        Optional<SeatingRecord> latest = seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(classId);
 
-        if (records.isEmpty()) {
+        if (latest.isEmpty()) {
             return Optional.empty();
         }
 
-        SeatingRecord latestRecord = records.get(0);
-        String snapshotJson = latestRecord.getLayoutSnapshot();
+        // 2. 将 JSON 快照解析回 SeatingResult 对象；放入缓存前构建好网格并冻结，供多个线程共享读取
+        SeatingResult result = parseSnapshot(latest.get(), classId);
+        return Optional.ofNullable(result == null ? null : result.freeze());
+    }
 
+    /**
+     * 将排座记录的 JSON 快照解析回 SeatingResult，解析失败返回 null
+     */
+    private SeatingResult parseSnapshot(SeatingRecord record, Long classId) {
         try {
-            // 2. 将 JSON 快照解析回 SeatingResult 对象
-            SeatingResult result = objectMapper.readValue(snapshotJson, SeatingResult.class);
-            return Optional.of(result);
+            return objectMapper.readValue(record.getLayoutSnapshot(), SeatingResult.class);
         } catch (JsonProcessingException e) {
-            // 如果 JSON 解析失败，返回空
-            System.err.println("Error parsing seating snapshot for classId " + classId + ": " + e.getMessage());
-            return Optional.empty();
+            log.warn("Error parsing seating snapshot for classId {}: {}", classId, e.getMessage());
+            return null;
         }
     }
 
@@ -232,7 +658,8 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
      * 实现：导出当前排座结果为 PDF
      */
     @Override
-    public ByteArrayOutputStream exportSeatingToPdf(Long classId) throws Exception {
+    @Timed(value = "seating.pdf.export", description = "Seating PDF export")
+    public void exportSeatingToPdf(Long classId, OutputStream out) throws Exception {
         // 1. 获取班级信息和最新排座结果
         Classroom classroom = classroomRepository.findById(classId)
                 .orElseThrow(() -> new RuntimeException("班级不存在。"));
@@ -244,45 +671,44 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
         }
 
         SeatingResult result = resultOptional.get();
-        int rows = result.getRows();
-        int cols = result.getCols();
 
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4.rotate()); // 使用横向 A4 页面
-        PdfWriter.getInstance(document, os);
-        document.open();
+        // 排座结果未变化时直接输出缓存的 PDF
+        Optional<byte[]> cachedPdf = arrangementCache.getPdf(classId);
+        if (cachedPdf.isPresent()) {
+            out.write(cachedPdf.get());
+            seatingMetrics.recordPdfSize(cachedPdf.get().length);
+            return;
+        }
 
-        BaseFont baseFont;
-        // 1. 使用 Spring ClassPathResource 确保在打包后也能找到资源
-        ClassPathResource fontResource = new ClassPathResource("fonts/NotoSansCJK-Regular.otf");
+        SeatGrid grid = result.grid();
+        int rows = grid.getRows();
+        int cols = grid.getCols();
 
-        try (InputStream fontStream = fontResource.getInputStream()) {
-            if (fontStream == null) {
-                // 抛出更清晰的错误信息
-                throw new RuntimeException("Font resource 'fonts/NotoSansCJK-Regular.otf' not found in classpath.");
-            }
+        long startNanos = System.nanoTime();
+        String titleText = classroom.getName() + " 座位安排表";
 
-            // 2. 读取字体字节并创建 BaseFont
-            byte[] fontBytes = fontStream.readAllBytes();
-
-            // 3. 使用自定义名称和字节数组创建 BaseFont
-            baseFont = BaseFont.createFont(
-                    "NotoSansCJK-Regular.otf",     // 使用文件路径作为内部别名
-                    BaseFont.IDENTITY_H,
-                    BaseFont.EMBEDDED,
-                    BaseFont.CACHED,           // 解决 'is not recognized' 错误
-                    fontBytes,
-                    null
-            );
+        // 收集文档中会出现的全部文字，字体只嵌入这些字符对应的字形
+        StringBuilder usedText = new StringBuilder(titleText).append(DESK_LABEL).append("0123456789()-");
+        for (SeatingPosition position : grid.toLayout()) {
+            usedText.append(position.getStudentName());
         }
 
-        Font titleFont = new Font(baseFont, 18, Font.BOLD);
-        Font headerFont = new Font(baseFont, 10, Font.BOLD, BaseColor.WHITE);
-        Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+        // 字体在进程内只加载一次（放在写出任何字节之前，加载失败时响应尚未提交）
+        SeatingPdfFonts.Styles styles = seatingPdfFonts.styles(usedText);
+        Font titleFont = styles.getTitleFont();
+        Font headerFont = styles.getHeaderFont();
+        Font cellFont = styles.getCellFont();
 
+        // 直接写入调用方提供的输出流，同时保留一份副本放入缓存（超过上限则不缓存）
+        CapturingOutputStream capturingOut = new CapturingOutputStream(out, arrangementCache.getMaxPdfBytes());
+        CountingOutputStream countingOut = new CountingOutputStream(capturingOut);
+        Document document = new Document(PageSize.A4.rotate()); // 使用横向 A4 页面
+        PdfWriter writer = PdfWriter.getInstance(document, countingOut);
+        writer.setCloseStream(false); // 输出流由调用方负责关闭
+        document.open();
 
         // 2. 写入标题
-        Paragraph title = new Paragraph(classroom.getName() + " 座位安排表", titleFont);
+        Paragraph title = new Paragraph(titleText, titleFont);
         title.setAlignment(Element.ALIGN_CENTER);
         document.add(title);
         document.add(Chunk.NEWLINE);
@@ -290,7 +716,7 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
         // 3. 绘制讲台
         PdfPTable deskTable = new PdfPTable(1);
         deskTable.setWidthPercentage(50);
-        PdfPCell deskCell = new PdfPCell(new Phrase("讲台 / Blackboard", headerFont));
+        PdfPCell deskCell = new PdfPCell(new Phrase(DESK_LABEL, headerFont));
         deskCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         deskCell.setBackgroundColor(BaseColor.DARK_GRAY);
         deskCell.setPadding(8);
@@ -307,28 +733,21 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
 
         // 5. 填充表格
         for (int r = 1; r <= rows; r++) {
-            // 解决 lambda 表达式的 final 问题：创建 final 副本
-            final int currentRow = r;
             for (int c = 1; c <= cols; c++) {
-                final int currentCol = c; // 解决 lambda 表达式的 final 问题：创建 final 副本
-
                 PdfPCell cell = new PdfPCell();
                 cell.setHorizontalAlignment(Element.ALIGN_CENTER);
                 cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
                 cell.setMinimumHeight(40);
                 cell.setPadding(5);
 
-                SeatingPosition position = result.getLayout().stream()
-                        // 引用 final 变量
-                        .filter(p -> p.getRow() == currentRow && p.getCol() == currentCol)
-                        .findFirst()
-                        .orElse(null);
+                // 通过索引网格 O(1) 定位座位，避免对整个座位列表做线性扫描
+                SeatingPosition position = grid.get(r, c);
 
                 String text;
                 BaseColor color;
                 if (position != null && position.getStudentId() != null) {
                     // 有人
-                    text = position.getStudentName() + "\n(" + currentRow + "-" + currentCol + ")";
+                    text = position.getStudentName() + "\n(" + r + "-" + c + ")";
                     color = position.getGender() != null && position.getGender().equals("男") ? new BaseColor(91, 192, 222) : new BaseColor(255, 153, 204); // 蓝色/粉色
                     cell.setBackgroundColor(color);
                     cell.setBorderColor(BaseColor.BLACK); // 确保边框可见
@@ -348,6 +767,15 @@ public class SeatingArrangementServiceImpl implements SeatingArrangementService
         document.add(seatingTable);
         document.close();
 
-        return os;
+        seatingMetrics.recordPdfSize(countingOut.getCount());
+        byte[] pdfBytes = capturingOut.getCapturedBytes();
+        if (pdfBytes != null) {
+            arrangementCache.putPdf(classId, result, pdfBytes);
+        }
+
+        // 记录文件大小与耗时，用于对比字体子集化前后的效果
+        log.info("Exported seating PDF for class {}: {} bytes in {} ms ({})", classId, countingOut.getCount(),
+                (System.nanoTime() - startNanos) / 1_000_000,
+                styles.isOwnSubset() ? "cached TrueType subset" : "iText font subset");
     }
 }
\ No newline at end of file
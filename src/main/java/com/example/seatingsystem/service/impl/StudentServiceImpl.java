@@ -1,27 +1,80 @@
 package com.example.seatingsystem.service.impl;
 
 import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.ClassStudentCount;
+import com.example.seatingsystem.model.RosterImportResult;
+import com.example.seatingsystem.model.StudentRosterPage;
+import com.example.seatingsystem.model.StudentRosterRow;
+import com.example.seatingsystem.repository.ClassroomRepository;
 import com.example.seatingsystem.repository.StudentRepository;
 import com.example.seatingsystem.service.StudentService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.metrics.SeatingMetrics;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 import java.util.Optional;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import java.io.InputStream;
+import com.example.seatingsystem.service.excel.RosterExcelReader;
+import com.example.seatingsystem.service.excel.RosterRow;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class StudentServiceImpl implements StudentService {
 
+    private static final String INSERT_STUDENT_SQL =
+            "INSERT INTO student (class_id, student_no, name, gender, custom_info, is_active, create_time, update_time) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STUDENT_SQL =
+            "UPDATE student SET name = ?, gender = ?, custom_info = ?, is_active = TRUE, update_time = ? WHERE id = ?";
+
+    private static final int MAX_ROSTER_PAGE_SIZE = 200; // 名单每页最多条数
+    private static final String STUDENT_QUERY_REGION = "query.student"; // 见 StudentRepository 的查询缓存区域
+
     private final StudentRepository studentRepository;
+    private final ClassroomRepository classroomRepository;
+    private final RosterExcelReader rosterExcelReader;
+    private final JdbcTemplate jdbcTemplate;
+    private final int importBatchSize; // 导入时每批写入的行数
+    private final ArrangementCache arrangementCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SeatingMetrics seatingMetrics;
 
     @Autowired
-    public StudentServiceImpl(StudentRepository studentRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository,
+                              ClassroomRepository classroomRepository,
+                              RosterExcelReader rosterExcelReader,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${seating.import.batch-size:500}") int importBatchSize,
+                              ArrangementCache arrangementCache,
+                              EntityManagerFactory entityManagerFactory,
+                              SeatingMetrics seatingMetrics) {
         this.studentRepository = studentRepository;
+        this.classroomRepository = classroomRepository;
+        this.rosterExcelReader = rosterExcelReader;
+        this.jdbcTemplate = jdbcTemplate;
+        this.importBatchSize = importBatchSize;
+        this.arrangementCache = arrangementCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.seatingMetrics = seatingMetrics;
     }
 
     // StudentServiceImpl.java (getActiveStudentsByClassId 方法)
@@ -31,6 +84,35 @@ public class StudentServiceImpl implements StudentService {
         return studentRepository.findByClassIdAndIsActiveTrueOrderByStudentNoAsc(classId);
     }
 
+    @Override
+    public StudentRosterPage getRosterPage(Long classId, String keyword, String gender,
+                                           String afterNo, Long afterId, int size, boolean withCustomInfo) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ROSTER_PAGE_SIZE));
+        // 多取一条用于判断是否还有下一页
+        List<StudentRosterRow> rows = studentRepository.findRosterPage(
+                classId, keyword, gender, afterNo, afterId, withCustomInfo, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        return new StudentRosterPage(new ArrayList<>(rows), hasMore);
+    }
+
+    @Override
+    public int countActiveStudentsByClassId(Long classId) {
+        return (int) studentRepository.countByClassIdAndIsActiveTrue(classId);
+    }
+
+    @Override
+    public Map<Long, Integer> countActiveStudentsByTeacherId(Long teacherId) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (ClassStudentCount row : studentRepository.countActiveByTeacherId(teacherId)) {
+            counts.put(row.getClassId(), row.getStudentCount().intValue());
+        }
+        return counts;
+    }
+
     @Override
     @Transactional
     public Student addStudent(Student student) {
@@ -44,7 +126,9 @@ public class StudentServiceImpl implements StudentService {
 
         // 设置默认值
         student.setIsActive(true);
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        rosterChanged(saved.getClassId());
+        return saved;
     }
 
     @Override
@@ -58,76 +142,46 @@ public class StudentServiceImpl implements StudentService {
     }
 
     /**
-     * 核心方法：从 Excel 文件批量导入学生数据 (使用 Apache POI)
+     * 核心方法：从 Excel 文件批量导入学生数据 (使用 Apache POI 事件模型流式读取)
+     * 一次查询载入班级已有学号，逐行区分新增/更新/未变化，再以 JDBC 批量写入
      */
     @Override
     @Transactional
-    public int importFromExcel(MultipartFile file, Long classId) throws Exception {
+    @Timed(value = "seating.roster.import", description = "Roster Excel import")
+    public RosterImportResult importFromExcel(MultipartFile file, Long classId) throws Exception {
         if (file.isEmpty() || !file.getOriginalFilename().endsWith(".xlsx")) {
             throw new IllegalArgumentException("请上传有效的 XLSX 格式文件。");
         }
 
-        List<Student> studentsToSave = new ArrayList<>();
-        int successCount = 0;
-
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0); // 默认读取第一个工作表
-
-            // 假设第一行是标题行，从第二行开始读取数据
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null || row.getCell(0) == null) continue;
-
-                try {
-                    // 1. 读取核心字段 (假设列顺序: 学号, 姓名, 性别)
-                    String studentNo = getCellValue(row.getCell(0));
-                    String name = getCellValue(row.getCell(1));
-                    String gender = getCellValue(row.getCell(2));
-                    String customInfo = getCellValue(row.getCell(3)); // 读取自定义信息
-
-                    if (studentNo.isEmpty() || name.isEmpty()) {
-                        throw new IllegalArgumentException("第 " + (i + 1) + " 行：学号和姓名不能为空。");
-                    }
-
-                    // 2. 校验并获取对象：实现覆盖逻辑
-                    Optional<Student> existingStudent = studentRepository.findByClassIdAndStudentNo(classId, studentNo);
-
-                    Student student;
-                    if (existingStudent.isPresent()) {
-                        // 覆盖/更新逻辑：如果存在，使用旧对象并更新其字段
-                        student = existingStudent.get();
-
-                        // 确保旧记录是活跃状态，如果是非活跃状态，则重新激活
-                        if (!student.getIsActive()) {
-                            student.setIsActive(true);
-                        }
-                    } else {
-                        // 新增逻辑：如果不存在，创建新对象
-                        student = new Student();
-                        student.setClassId(classId); // 绑定班级ID
-                        student.setIsActive(true);    // 设置为活跃
-                    }
-
-                    // 3. 更新/设置对象字段 (无论是新增还是更新，都用 Excel 数据覆盖)
-                    student.setStudentNo(studentNo);
-                    student.setName(name);
-                    student.setGender(gender.toUpperCase().startsWith("男") ? "男" : "女");
-                    student.setCustomInfo(customInfo);
-
-                    studentsToSave.add(student);
-                    successCount++;
-
-                } catch (Exception rowEx) {
-                    // 可以在日志中记录错误，但不中断整个事务
-                    // 考虑到期末项目要求，这里选择抛出异常中断，让用户修正文件
-                    throw rowEx;
-                }
+        // 先落盘为临时文件，POI 按需随机读取 zip 条目，避免把整个上传内容读入内存
+        Path tempFile = Files.createTempFile("roster-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            return importFromExcelFile(tempFile.toFile(), classId);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 从已落盘的 XLSX 文件导入（后台导入任务直接使用任务目录中的文件）
+     */
+    @Override
+    @Transactional
+    @Timed(value = "seating.roster.import", description = "Roster Excel import")
+    public RosterImportResult importFromExcelFile(File file, Long classId) throws Exception {
+        try {
+            RosterUpsert upsert = new RosterUpsert(classId, studentRepository.findByClassId(classId));
+            rosterExcelReader.read(file, upsert::accept);
+            upsert.flush();
+            evictStudentCaches();
+            if (upsert.inserted + upsert.updated > 0) {
+                rosterChanged(classId);
             }
 
-            // 4. 批量保存
-            studentRepository.saveAll(studentsToSave);
+            RosterImportResult result = new RosterImportResult(upsert.inserted, upsert.updated, upsert.unchanged);
+            seatingMetrics.recordImportedRoster(result.getTotal());
+            return result;
 
         } catch (RuntimeException e) {
             // 重新抛出业务异常
@@ -136,21 +190,111 @@ public class StudentServiceImpl implements StudentService {
             // 捕获文件读取异常
             throw new Exception("文件解析失败，请检查文件格式或数据类型。", e);
         }
+    }
 
-        return successCount;
+    /**
+     * 名单变化：清除排座缓存并递增班级的名单版本
+     */
+    private void rosterChanged(Long classId) {
+        classroomRepository.incrementRosterVersion(classId, LocalDateTime.now());
+        arrangementCache.invalidate(classId);
     }
 
     /**
-     * 辅助方法：获取单元格的值并转换为 String
+     * JDBC 批量写入绕过了 Hibernate，需要手动清除学生实体及查询的二级缓存；
+     * 提交后再清除一次，避免其他请求在提交前把旧数据重新放入缓存
      */
-    private String getCellValue(Cell cell) {
-        if (cell == null) {
-            return "";
+    private void evictStudentCaches() {
+        Runnable evict = () -> {
+            entityManagerFactory.getCache().evict(Student.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(STUDENT_QUERY_REGION);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * 一次导入的增量写入状态：
+     * Student 使用 IDENTITY 主键，Hibernate 无法批量插入，因此新增和更新都直接走 JdbcTemplate 批处理，
+     * 攒满 importBatchSize 行发送一批。
+     */
+    private class RosterUpsert {
+
+        private final Long classId;
+        private final Map<String, Student> existingByNo = new HashMap<>();
+        private final Set<String> seenNos = new HashSet<>();
+        private final List<Object[]> pendingInserts = new ArrayList<>();
+        private final List<Object[]> pendingUpdates = new ArrayList<>();
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        private int inserted;
+        private int updated;
+        private int unchanged;
+
+        private RosterUpsert(Long classId, List<Student> existingStudents) {
+            this.classId = classId;
+            for (Student student : existingStudents) {
+                existingByNo.put(student.getStudentNo(), student);
+            }
         }
 
-        // 设置单元格类型以避免格式错误，特别是数字学号
-        cell.setCellType(CellType.STRING);
-        return cell.getStringCellValue().trim();
+        private void accept(RosterRow row) {
+            String studentNo = row.getStudentNo();
+            String name = row.getName();
+
+            if (studentNo.isEmpty() || name.isEmpty()) {
+                throw new IllegalArgumentException("第 " + row.getRowNumber() + " 行：学号和姓名不能为空。");
+            }
+            if (!seenNos.add(studentNo)) {
+                throw new IllegalArgumentException("第 " + row.getRowNumber() + " 行：学号 " + studentNo + " 在文件中重复。");
+            }
+
+            String gender = row.getGender().toUpperCase().startsWith("男") ? "男" : "女";
+            String customInfo = row.getCustomInfo();
+            Student existing = existingByNo.get(studentNo);
+
+            if (existing == null) {
+                // 新增
+                pendingInserts.add(new Object[]{classId, studentNo, name, gender, customInfo, true, now, now});
+                inserted++;
+            } else if (Boolean.TRUE.equals(existing.getIsActive())
+                    && name.equals(existing.getName())
+                    && gender.equals(existing.getGender())
+                    && Objects.equals(emptyToNull(customInfo), emptyToNull(existing.getCustomInfo()))) {
+                // 内容完全相同，跳过
+                unchanged++;
+            } else {
+                // 覆盖更新，非活跃学生同时重新激活
+                pendingUpdates.add(new Object[]{name, gender, customInfo, now, existing.getId()});
+                updated++;
+            }
+
+            if (pendingInserts.size() >= importBatchSize || pendingUpdates.size() >= importBatchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!pendingInserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, pendingInserts);
+                pendingInserts.clear();
+            }
+            if (!pendingUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_STUDENT_SQL, pendingUpdates);
+                pendingUpdates.clear();
+            }
+        }
+
+        private String emptyToNull(String value) {
+            return value == null || value.isEmpty() ? null : value;
+        }
     }
 
     @Override
@@ -159,6 +303,10 @@ public class StudentServiceImpl implements StudentService {
         // 1. 检查学生是否存在
         Student existingStudent = studentRepository.findById(student.getId())
                 .orElseThrow(() -> new RuntimeException("学生 ID:" + student.getId() + " 不存在，无法更新。"));
+        // 班级归属只校验了请求中的 classId，学生本身也必须属于该班级
+        if (!existingStudent.getClassId().equals(student.getClassId())) {
+            throw new RuntimeException("学生 ID:" + student.getId() + " 不属于该班级，无法更新。");
+        }
 
         // 2. 检查学号 (StudentNo) 是否被修改且与同班级其他学生冲突
         // 仅当学号发生变化时才进行校验
@@ -178,18 +326,24 @@ public class StudentServiceImpl implements StudentService {
         existingStudent.setGender(student.getGender());
         existingStudent.setCustomInfo(student.getCustomInfo());
 
-        return studentRepository.save(existingStudent);
+        Student saved = studentRepository.save(existingStudent);
+        rosterChanged(saved.getClassId());
+        return saved;
     }
 
     @Override
     @Transactional
-    public void deleteStudentById(Long studentId) {
-        // 1. 查找学生
-        studentRepository.findById(studentId)
+    public void deleteStudentById(Long studentId, Long classId) {
+        // 1. 查找学生，并确认学生属于（已校验归属的）班级
+        Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("学生 ID:" + studentId + " 不存在，无法删除。"));
+        if (!student.getClassId().equals(classId)) {
+            throw new RuntimeException("学生 ID:" + studentId + " 不属于该班级，无法删除。");
+        }
 
         // 2. 硬删除（物理删除）
         studentRepository.deleteById(studentId);
+        rosterChanged(student.getClassId());
 
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.seatingsystem.service.job;
+
+import com.example.seatingsystem.repository.AsyncJobRepository;
+
+import java.nio.file.Path;
+
+/**
+ * 任务执行时可用的上下文：结果文件位置、进度上报、取消检查
+ */
+public class JobContext {
+
+    private final Long jobId;
+    private final Path resultFile;
+    private final AsyncJobRepository asyncJobRepository;
+    private volatile boolean cancelled;
+    private volatile boolean resultWritten;
+    private volatile String summary;
+
+    JobContext(Long jobId, Path resultFile, AsyncJobRepository asyncJobRepository) {
+        this.jobId = jobId;
+        this.resultFile = resultFile;
+        this.asyncJobRepository = asyncJobRepository;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * 结果文件位置；调用后即视为任务会产生可下载的结果
+     */
+    public Path resultFile() {
+        resultWritten = true;
+        return resultFile;
+    }
+
+    /**
+     * 上报进度（0-100）
+     */
+    public void setProgress(int progress) {
+        asyncJobRepository.updateProgress(jobId, Math.max(0, Math.min(99, progress)));
+    }
+
+    /**
+     * 设置任务成功后显示的结果摘要
+     */
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * 任务已被取消时抛出异常，供长时间运行的任务在阶段之间调用
+     */
+    public void checkCancelled() throws InterruptedException {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("任务已取消。");
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    Path getResultFilePath() {
+        return resultFile;
+    }
+
+    boolean isResultWritten() {
+        return resultWritten;
+    }
+
+    String getSummary() {
+        return summary;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.seatingsystem.service.job;
+
+import com.example.seatingsystem.entity.AsyncJob;
+import com.example.seatingsystem.repository.AsyncJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后台任务调度：任务记录持久化到 async_job 表，在固定大小、有界队列的线程池中执行，
+ * 结果文件写入任务目录，过期后定时清理。
+ * 重负载操作（PDF 导出、名单导入、批量轮换）不再占用 Tomcat 请求线程做计算，同时执行的数量受线程池限制。
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+    private static final int RECENT_JOB_LIMIT = 20;
+
+    private final AsyncJobRepository asyncJobRepository;
+    private final Path jobDir;
+    private final long retentionHours;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore permits; // 后台任务与同步导出共享的并发上限（等于线程池大小）
+    private final Map<Long, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JobService(AsyncJobRepository asyncJobRepository,
+                      @Value("${seating.jobs.dir:}") String jobDir,
+                      @Value("${seating.jobs.pool-size:2}") int poolSize,
+                      @Value("${seating.jobs.queue-capacity:50}") int queueCapacity,
+                      @Value("${seating.jobs.retention-hours:24}") long retentionHours) throws IOException {
+        this.asyncJobRepository = asyncJobRepository;
+        this.jobDir = jobDir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "seating-jobs")
+                : Paths.get(jobDir);
+        Files.createDirectories(this.jobDir);
+        this.retentionHours = retentionHours;
+
+        this.permits = new Semaphore(Math.max(1, poolSize));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "seating-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 服务启动时，上次进程遗留的未完成任务已无法继续，统一标记为失败
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int count = asyncJobRepository.failUnfinished("服务重启，任务已中断，请重新提交。", LocalDateTime.now());
+        if (count > 0) {
+            log.warn("Marked {} unfinished jobs from a previous run as failed", count);
+        }
+    }
+
+    /**
+     * 提交任务
+     * @param jobType    任务类型（AsyncJob.TYPE_*）
+     * @param ownerId    提交者用户ID
+     * @param classId    涉及的班级ID，可为空
+     * @param resultName 结果文件的下载文件名，无结果文件时为空
+     * @param contentType 结果文件类型
+     * @throws RuntimeException 任务队列已满
+     */
+    public <T> JobTicket<T> submit(String jobType, Long ownerId, Long classId,
+                                   String resultName, String contentType, JobWork<T> work) {
+        return submit(jobType, ownerId, classId, resultName, contentType, null, work);
+    }
+
+    /**
+     * 提交任务，并接管任务使用的临时文件（见 createStagingFile）：
+     * 任务执行结束、排队中被取消或提交失败时都会删除该文件
+     * @param stagedFile 任务读取的临时文件，可为空
+     * @throws RuntimeException 任务队列已满
+     */
+    public <T> JobTicket<T> submit(String jobType, Long ownerId, Long classId,
+                                   String resultName, String contentType, Path stagedFile, JobWork<T> work) {
+        try {
+            AsyncJob job = new AsyncJob();
+            job.setJobType(jobType);
+            job.setStatus(AsyncJob.PENDING);
+            job.setOwnerId(ownerId);
+            job.setClassId(classId);
+            job.setResultName(resultName);
+            job.setResultContentType(contentType);
+            job = asyncJobRepository.save(job);
+
+            Long jobId = job.getId();
+            JobContext context = new JobContext(jobId, jobDir.resolve("job-" + jobId + ".result"), asyncJobRepository);
+            AtomicBoolean started = new AtomicBoolean();
+            FutureTask<T> task = new FutureTask<>(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    throw new CancellationException("任务已取消。"); // 排队中已被取消，清理由 cancel 完成
+                }
+                return execute(jobId, work, context, stagedFile);
+            });
+            runningJobs.put(jobId, new RunningJob(task, context, stagedFile, started));
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                runningJobs.remove(jobId);
+                asyncJobRepository.finish(jobId, AsyncJob.FAILED, "任务队列已满。", null, LocalDateTime.now());
+                throw new RuntimeException("当前后台任务过多，请稍后再试。");
+            }
+            return new JobTicket<>(job, task);
+        } catch (RuntimeException e) {
+            deleteStaged(stagedFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 在任务线程中执行：更新状态、运行任务、记录结果
+     */
+    private <T> T execute(Long jobId, JobWork<T> work, JobContext context, Path stagedFile) throws Exception {
+        boolean acquired = false;
+        try {
+            permits.acquire(); // 同步导出占用名额时在此等待，取消时被中断
+            acquired = true;
+            if (asyncJobRepository.markRunning(jobId, LocalDateTime.now()) == 0) {
+                throw new CancellationException("任务已取消。");
+            }
+
+            T result = work.run(context);
+            context.checkCancelled();
+
+            String resultPath = context.isResultWritten() ? context.resultFile().toString() : null;
+            if (asyncJobRepository.finish(jobId, AsyncJob.SUCCEEDED, context.getSummary(), resultPath, LocalDateTime.now()) == 0) {
+                throw new CancellationException("任务已取消。"); // 完成前被取消，记录已结束，结果文件在下面删除
+            }
+            return result;
+        } catch (Exception e) {
+            deleteQuietly(context.getResultFilePath());
+            if (context.isCancelled() || e instanceof InterruptedException || e instanceof CancellationException) {
+                asyncJobRepository.finish(jobId, AsyncJob.CANCELLED, "任务已取消。", null, LocalDateTime.now());
+            } else {
+                log.warn("Job {} failed: {}", jobId, e.getMessage());
+                asyncJobRepository.finish(jobId, AsyncJob.FAILED, truncate(e.getMessage()), null, LocalDateTime.now());
+            }
+            throw e;
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            runningJobs.remove(jobId);
+            deleteStaged(stagedFile);
+        }
+    }
+
+    /**
+     * 在调用线程中直接执行重负载操作（如同步下载时把 PDF 直接写入响应流），不经过任务表和结果文件，
+     * 与后台任务共享并发上限；等待 waitSeconds 秒仍没有空闲名额时拒绝
+     * @throws RuntimeException 等待超时
+     */
+    public <T> T runInline(long waitSeconds, Callable<T> work) throws Exception {
+        if (!permits.tryAcquire(waitSeconds, TimeUnit.SECONDS)) {
+            throw new RuntimeException("当前后台任务过多，请稍后再试。");
+        }
+        try {
+            return work.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 同步等待任务完成（原有同步接口使用），超时后任务继续在后台执行
+     * @throws RuntimeException 任务失败（业务异常原样抛出）、被取消或等待超时
+     */
+    public <T> T await(JobTicket<T> ticket, long timeoutSeconds) throws Exception {
+        try {
+            return ticket.getFuture().get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("任务仍在后台执行，请稍后在任务列表中查看结果（任务ID: " + ticket.getJobId() + "）。");
+        } catch (CancellationException e) {
+            throw new RuntimeException("任务已取消。");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                if (exception instanceof InterruptedException || exception instanceof CancellationException) {
+                    throw new RuntimeException("任务已取消。");
+                }
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 获取当前用户的任务
+     */
+    public AsyncJob getJob(Long jobId, Long ownerId) {
+        return asyncJobRepository.findByIdAndOwnerId(jobId, ownerId)
+                .orElseThrow(() -> new RuntimeException("任务不存在。"));
+    }
+
+    /**
+     * 当前用户最近提交的任务
+     */
+    public List<AsyncJob> getRecentJobs(Long ownerId) {
+        return asyncJobRepository.findByOwnerIdOrderByCreateTimeDescIdDesc(ownerId, PageRequest.of(0, RECENT_JOB_LIMIT));
+    }
+
+    /**
+     * 取消任务：等待中的任务不再执行，执行中的任务被中断，已结束的任务不受影响
+     */
+    public AsyncJob cancel(Long jobId, Long ownerId) {
+        AsyncJob job = getJob(jobId, ownerId);
+        if (job.isFinished()) {
+            return job;
+        }
+
+        asyncJobRepository.finish(jobId, AsyncJob.CANCELLED, "任务已取消。", null, LocalDateTime.now());
+        RunningJob running = runningJobs.get(jobId);
+        if (running != null) {
+            running.context.cancel();
+            running.task.cancel(true);
+            executor.remove(running.task);
+            if (running.started.compareAndSet(false, true)) {
+                runningJobs.remove(jobId); // 尚未开始执行，execute 不会再运行，由这里清理
+                deleteStaged(running.stagedFile);
+            }
+        }
+        return getJob(jobId, ownerId);
+    }
+
+    /**
+     * 获取任务的结果文件
+     * @throws RuntimeException 任务未成功结束或结果文件已被清理
+     */
+    public Path getResultFile(AsyncJob job) {
+        if (!job.isDownloadable()) {
+            throw new RuntimeException("任务尚未完成或没有可下载的结果。");
+        }
+        Path file = Paths.get(job.getResultPath());
+        if (!Files.exists(file)) {
+            throw new RuntimeException("结果文件已过期，请重新提交任务。");
+        }
+        return file;
+    }
+
+    /**
+     * 在任务目录中创建临时文件（如上传的名单），随 submit 交给任务后由 JobService 负责删除
+     */
+    public Path createStagingFile(String suffix) throws IOException {
+        return Files.createTempFile(jobDir, "upload-", suffix);
+    }
+
+    /**
+     * 定时清理过期任务的记录和结果文件
+     */
+    @Scheduled(fixedDelayString = "${seating.jobs.cleanup-interval-ms:3600000}")
+    public void cleanupExpiredJobs() {
+        List<AsyncJob> expired = asyncJobRepository.findByFinishTimeBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (AsyncJob job : expired) {
+            if (job.getResultPath() != null) {
+                deleteQuietly(Paths.get(job.getResultPath()));
+            }
+        }
+        asyncJobRepository.deleteAllInBatch(expired);
+        log.info("Cleaned up {} expired jobs", expired.size());
+    }
+
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete job file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void deleteStaged(Path stagedFile) {
+        if (stagedFile != null) {
+            deleteQuietly(stagedFile);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "任务执行失败。";
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    // 执行中（或排队中）的任务，取消时用于中断
+    private static class RunningJob {
+        private final FutureTask<?> task;
+        private final JobContext context;
+        private final Path stagedFile;
+        private final AtomicBoolean started; // execute 与排队中的取消只有一方负责清理
+
+        RunningJob(FutureTask<?> task, JobContext context, Path stagedFile, AtomicBoolean started) {
+            this.task = task;
+            this.context = context;
+            this.stagedFile = stagedFile;
+            this.started = started;
+        }
+    }
+}
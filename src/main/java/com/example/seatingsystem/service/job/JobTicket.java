@@ -0,0 +1,31 @@
+package com.example.seatingsystem.service.job;
+
+import com.example.seatingsystem.entity.AsyncJob;
+
+import java.util.concurrent.Future;
+
+/**
+ * 已提交的任务：任务记录（提交时的状态）以及执行结果的 Future
+ */
+public class JobTicket<T> {
+
+    private final AsyncJob job;
+    private final Future<T> future;
+
+    JobTicket(AsyncJob job, Future<T> future) {
+        this.job = job;
+        this.future = future;
+    }
+
+    public AsyncJob getJob() {
+        return job;
+    }
+
+    public Long getJobId() {
+        return job.getId();
+    }
+
+    Future<T> getFuture() {
+        return future;
+    }
+}
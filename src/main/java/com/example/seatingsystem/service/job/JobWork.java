@@ -0,0 +1,11 @@
+package com.example.seatingsystem.service.job;
+
+/**
+ * 后台任务的执行逻辑
+ * @param <T> 执行结果（同步等待的调用方可直接取得）
+ */
+@FunctionalInterface
+public interface JobWork<T> {
+
+    T run(JobContext context) throws Exception;
+}
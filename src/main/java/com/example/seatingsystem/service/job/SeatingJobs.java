@@ -0,0 +1,95 @@
+package com.example.seatingsystem.service.job;
+
+import com.example.seatingsystem.entity.AsyncJob;
+import com.example.seatingsystem.model.RosterImportResult;
+import com.example.seatingsystem.model.RotationReport;
+import com.example.seatingsystem.service.SeatRotationService;
+import com.example.seatingsystem.service.SeatingArrangementService;
+import com.example.seatingsystem.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 各类重负载操作的任务定义：PDF 导出、名单导入、全校座位轮换
+ */
+@Component
+public class SeatingJobs {
+
+    private final JobService jobService;
+    private final SeatingArrangementService seatingArrangementService;
+    private final StudentService studentService;
+    private final SeatRotationService seatRotationService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SeatingJobs(JobService jobService,
+                       SeatingArrangementService seatingArrangementService,
+                       StudentService studentService,
+                       SeatRotationService seatRotationService,
+                       ObjectMapper objectMapper) {
+        this.jobService = jobService;
+        this.seatingArrangementService = seatingArrangementService;
+        this.studentService = studentService;
+        this.seatRotationService = seatRotationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 导出班级排座 PDF 到结果文件
+     */
+    public JobTicket<Path> submitPdfExport(Long ownerId, Long classId, String fileName) {
+        return jobService.submit(AsyncJob.TYPE_PDF_EXPORT, ownerId, classId, fileName, "application/pdf", context -> {
+            Path file = context.resultFile();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                seatingArrangementService.exportSeatingToPdf(classId, out);
+            }
+            context.setSummary("已生成 " + Files.size(file) + " 字节");
+            return file;
+        });
+    }
+
+    /**
+     * 导入名单：上传内容先落盘到任务目录（请求结束后上传的临时文件即失效），由 JobService 在任务结束或取消时删除
+     * @throws IllegalArgumentException 文件为空或不是 XLSX
+     */
+    public JobTicket<RosterImportResult> submitRosterImport(Long ownerId, Long classId, MultipartFile file) throws Exception {
+        if (file.isEmpty() || file.getOriginalFilename() == null || !file.getOriginalFilename().endsWith(".xlsx")) {
+            throw new IllegalArgumentException("请上传有效的 XLSX 格式文件。");
+        }
+        Path staged = jobService.createStagingFile(".xlsx");
+        try {
+            file.transferTo(staged);
+        } catch (Exception e) {
+            JobService.deleteQuietly(staged);
+            throw e;
+        }
+
+        return jobService.submit(AsyncJob.TYPE_ROSTER_IMPORT, ownerId, classId, null, null, staged, context -> {
+            context.checkCancelled();
+            RosterImportResult result = studentService.importFromExcelFile(staged.toFile(), classId);
+            context.setSummary("成功导入 " + result.getTotal() + " 条（新增 " + result.getInserted()
+                    + " 条，更新 " + result.getUpdated() + " 条，未变化 " + result.getUnchanged() + " 条）");
+            return result;
+        });
+    }
+
+    /**
+     * 全校座位轮换，报告写入结果文件（JSON）
+     */
+    public JobTicket<RotationReport> submitRotation(Long ownerId, boolean dryRun) {
+        String resultName = dryRun ? "rotation-dry-run.json" : "rotation-report.json";
+        return jobService.submit(AsyncJob.TYPE_ROTATION, ownerId, null, resultName, "application/json", context -> {
+            RotationReport report = seatRotationService.rotateAll(dryRun, context::setProgress);
+            objectMapper.writeValue(context.resultFile().toFile(), report);
+            context.setSummary("处理 " + report.getClassesScanned() + " 个班级：轮换 " + report.getRotated()
+                    + "，跳过 " + report.getSkipped() + "，失败 " + report.getFailed());
+            return report;
+        });
+    }
+}
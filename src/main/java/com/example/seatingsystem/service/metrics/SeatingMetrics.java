@@ -0,0 +1,72 @@
+package com.example.seatingsystem.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 排座业务的数据量分布指标（耗时由服务方法上的 @Timed 记录）
+ * 百分位直方图由 management.metrics.distribution.percentiles-histogram.seating 统一开启
+ */
+@Component
+public class SeatingMetrics {
+
+    private final DistributionSummary importedRosterSize;
+    private final DistributionSummary arrangedRosterSize;
+    private final DistributionSummary pdfSize;
+    private final DistributionSummary snapshotSize;
+    private final Counter snapshotsStored;
+    private final Counter snapshotsDeduplicated;
+
+    @Autowired
+    public SeatingMetrics(MeterRegistry registry) {
+        this.importedRosterSize = DistributionSummary.builder("seating.roster.size")
+                .description("Number of students per roster operation")
+                .baseUnit("students")
+                .tag("operation", "import")
+                .register(registry);
+        this.arrangedRosterSize = DistributionSummary.builder("seating.roster.size")
+                .description("Number of students per roster operation")
+                .baseUnit("students")
+                .tag("operation", "arrange")
+                .register(registry);
+        this.pdfSize = DistributionSummary.builder("seating.pdf.size")
+                .description("Size of exported seating PDFs")
+                .baseUnit("bytes")
+                .register(registry);
+        this.snapshotSize = DistributionSummary.builder("seating.snapshot.size")
+                .description("Size of saved layout snapshots (JSON)")
+                .baseUnit("bytes")
+                .register(registry);
+        this.snapshotsStored = Counter.builder("seating.snapshot.saves")
+                .description("Seating record saves by whether the layout snapshot was new")
+                .tag("outcome", "stored")
+                .register(registry);
+        this.snapshotsDeduplicated = Counter.builder("seating.snapshot.saves")
+                .description("Seating record saves by whether the layout snapshot was new")
+                .tag("outcome", "deduplicated")
+                .register(registry);
+    }
+
+    public void recordImportedRoster(int students) {
+        importedRosterSize.record(students);
+    }
+
+    public void recordArrangedRoster(int students) {
+        arrangedRosterSize.record(students);
+    }
+
+    public void recordPdfSize(long bytes) {
+        pdfSize.record(bytes);
+    }
+
+    /**
+     * 记录一次排座保存：快照大小，以及快照是新写入的还是与已有快照重复
+     */
+    public void recordSnapshotSave(long bytes, boolean stored) {
+        snapshotSize.record(bytes);
+        (stored ? snapshotsStored : snapshotsDeduplicated).increment();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.seatingsystem.service.migration;
+
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import com.example.seatingsystem.model.SeatingResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 快照规范化（一次性迁移）：seating_snapshot_migration.sql 按旧快照的原始字节计算哈希，
+ * 而保存排座时对规范化后的 JSON 计算哈希，迁移来的快照因此无法与新记录去重。
+ * 本类用与保存排座相同的序列化方式重写旧快照，并把引用它的记录改指向规范化后的哈希。
+ * 由 seating.snapshot.canonicalize-on-startup 控制，在执行迁移脚本后启动一次即可，之后应关闭。
+ */
+@Component
+public class SnapshotCanonicalizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotCanonicalizer.class);
+    private static final int BATCH_SIZE = 200;
+    private static final String SELECT_BATCH_SQL =
+            "SELECT content_hash, layout_snapshot, create_time FROM seating_snapshot WHERE content_hash > ? ORDER BY content_hash LIMIT ?";
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT IGNORE INTO seating_snapshot (content_hash, layout_snapshot, create_time) VALUES (?, ?, ?)";
+    private static final String REPOINT_RECORDS_SQL =
+            "UPDATE seating_record SET snapshot_hash = ? WHERE snapshot_hash = ?";
+    private static final String DELETE_SNAPSHOT_SQL =
+            "DELETE FROM seating_snapshot WHERE content_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public SnapshotCanonicalizer(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${seating.snapshot.canonicalize-on-startup:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void canonicalizeOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        int rewritten = canonicalizeAll();
+        log.info("Canonicalized {} legacy seating snapshots", rewritten);
+    }
+
+    /**
+     * 按哈希顺序分批扫描全部快照，内容不是规范形式的逐条重写；无法解析的快照保留原样并记录日志
+     * @return 重写的快照数量
+     */
+    public int canonicalizeAll() {
+        int rewritten = 0;
+        String lastHash = "";
+        while (true) {
+            List<Map<String, Object>> batch = jdbcTemplate.queryForList(SELECT_BATCH_SQL, lastHash, BATCH_SIZE);
+            for (Map<String, Object> row : batch) {
+                String hash = (String) row.get("content_hash");
+                if (canonicalize(hash, (String) row.get("layout_snapshot"), row.get("create_time"))) {
+                    rewritten++;
+                }
+            }
+            if (batch.size() < BATCH_SIZE) {
+                return rewritten;
+            }
+            lastHash = (String) batch.get(batch.size() - 1).get("content_hash");
+        }
+    }
+
+    private boolean canonicalize(String hash, String snapshotJson, Object createTime) {
+        String canonicalJson;
+        try {
+            // 与 saveArrangement 相同：只含有人座位、按行列排序的 SeatingResult
+            SeatingResult result = objectMapper.readValue(snapshotJson, SeatingResult.class);
+            canonicalJson = objectMapper.writeValueAsString(result.grid().toResult());
+        } catch (Exception e) {
+            log.warn("Skipping seating snapshot {} that cannot be canonicalized: {}", hash, e.getMessage());
+            return false;
+        }
+        String canonicalHash = SeatingSnapshot.hashOf(canonicalJson);
+        if (canonicalHash.equals(hash)) {
+            return false;
+        }
+        // 新快照、记录改指向与删除旧快照在同一事务中完成，读取方始终能找到记录引用的快照；保留首次写入时间
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(INSERT_SNAPSHOT_SQL, canonicalHash, canonicalJson,
+                    createTime != null ? createTime : LocalDateTime.now());
+            jdbcTemplate.update(REPOINT_RECORDS_SQL, canonicalHash, hash);
+            jdbcTemplate.update(DELETE_SNAPSHOT_SQL, hash);
+        });
+        return true;
+    }
+}
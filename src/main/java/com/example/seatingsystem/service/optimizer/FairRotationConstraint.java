@@ -0,0 +1,56 @@
+package com.example.seatingsystem.service.optimizer;
+
+import com.example.seatingsystem.model.SeatBands;
+import org.springframework.stereotype.Component;
+
+/**
+ * 公平轮换：学生过去在某个区域坐得越多，再次被安排到该区域的罚分越高。
+ * 只有公平排座模式会在问题中提供历史比例，其余模式下罚分恒为 0。
+ */
+@Component
+public class FairRotationConstraint implements SeatingConstraint {
+
+    private static final double WEIGHT = 1.0;
+
+    @Override
+    public double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent) {
+        double[][] shares = problem.getBandShares();
+        if (shares == null) {
+            return 0;
+        }
+        double penalty = 0;
+        for (int student = 0; student < seatOfStudent.length; student++) {
+            double[] share = shares[student];
+            if (share == null) continue;
+            penalty += WEIGHT * seatPenalty(problem, share, seatOfStudent[student]);
+        }
+        return penalty;
+    }
+
+    /**
+     * 每个学生的罚分只取决于自己的座位，只需重算被交换的两名学生
+     */
+    @Override
+    public double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        double[][] shares = problem.getBandShares();
+        if (shares == null) {
+            return 0;
+        }
+        double delta = 0;
+        int studentA = studentAtSeat[a];
+        int studentB = studentAtSeat[b];
+        if (studentA >= 0 && shares[studentA] != null) {
+            delta += seatPenalty(problem, shares[studentA], b) - seatPenalty(problem, shares[studentA], a);
+        }
+        if (studentB >= 0 && shares[studentB] != null) {
+            delta += seatPenalty(problem, shares[studentB], a) - seatPenalty(problem, shares[studentB], b);
+        }
+        return WEIGHT * delta;
+    }
+
+    private static double seatPenalty(SeatingProblem problem, double[] share, int seat) {
+        int rowBand = SeatBands.of(problem.rowOf(seat), problem.getRows());
+        int colBand = SeatBands.of(problem.colOf(seat), problem.getCols());
+        return share[rowBand] + share[SeatBands.BAND_COUNT + colBand];
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.seatingsystem.service.optimizer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 前排优先：空座越靠前罚分越高，使空座尽量集中在教室后排（与原随机排座的行为保持一致）。
+ */
+@Component
+public class FrontFillConstraint implements SeatingConstraint {
+
+    private static final double WEIGHT = 0.5;
+
+    @Override
+    public double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent) {
+        int rows = problem.getRows();
+        double penalty = 0;
+        for (int seat = 0; seat < studentAtSeat.length; seat++) {
+            if (studentAtSeat[seat] < 0) {
+                penalty += WEIGHT * (rows - 1 - problem.rowOf(seat));
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * 只有一个座位为空时交换才会移动空座
+     */
+    @Override
+    public double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        boolean emptyA = studentAtSeat[a] < 0;
+        boolean emptyB = studentAtSeat[b] < 0;
+        if (emptyA == emptyB) {
+            return 0;
+        }
+        int from = emptyA ? a : b;
+        int to = emptyA ? b : a;
+        return WEIGHT * (problem.rowOf(from) - problem.rowOf(to));
+    }
+}
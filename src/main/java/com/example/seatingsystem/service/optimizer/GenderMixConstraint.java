@@ -0,0 +1,53 @@
+package com.example.seatingsystem.service.optimizer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 男女搭配：同一行左右相邻的两名学生性别相同时计罚分。
+ */
+@Component
+public class GenderMixConstraint implements SeatingConstraint {
+
+    private static final double WEIGHT = 1.0;
+
+    @Override
+    public double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent) {
+        int cols = problem.getCols();
+        double penalty = 0;
+        for (int seat = 0; seat < studentAtSeat.length; seat++) {
+            if (seat % cols == cols - 1) continue; // 行末没有右侧同桌
+            if (sameGender(problem, studentAtSeat[seat], studentAtSeat[seat + 1])) {
+                penalty += WEIGHT;
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * 只有 a、b 与各自左右同桌组成的（最多四对）相邻关系会变化
+     */
+    @Override
+    public double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        int cols = problem.getCols();
+        int delta = 0;
+        // 每对相邻座位以左侧座位表示；a、b 互为同桌时这一对只是左右互换，变化量为 0，重复计算不影响结果
+        for (int left : new int[]{a - 1, a, b - 1, b}) {
+            if (left < 0 || left % cols == cols - 1 || left + 1 >= studentAtSeat.length) continue;
+            int before = sameGender(problem, studentAtSeat[left], studentAtSeat[left + 1]) ? 1 : 0;
+            int after = sameGender(problem, studentAfterSwap(studentAtSeat, left, a, b),
+                    studentAfterSwap(studentAtSeat, left + 1, a, b)) ? 1 : 0;
+            delta += after - before;
+        }
+        return WEIGHT * delta;
+    }
+
+    private static int studentAfterSwap(int[] studentAtSeat, int seat, int a, int b) {
+        return studentAtSeat[seat == a ? b : seat == b ? a : seat];
+    }
+
+    private static boolean sameGender(SeatingProblem problem, int left, int right) {
+        if (left < 0 || right < 0) return false;
+        String leftGender = problem.getStudent(left).getGender();
+        return leftGender != null && leftGender.equals(problem.getStudent(right).getGender());
+    }
+}
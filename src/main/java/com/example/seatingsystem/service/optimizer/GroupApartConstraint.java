@@ -0,0 +1,57 @@
+package com.example.seatingsystem.service.optimizer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 分组隔开：同一“需要分开”分组中的任意两名学生相邻（含斜向）时计罚分。
+ */
+@Component
+public class GroupApartConstraint implements SeatingConstraint {
+
+    private static final double WEIGHT = 5.0;
+
+    @Override
+    public double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent) {
+        double penalty = 0;
+        for (int[] group : problem.getApartGroups()) {
+            for (int i = 0; i < group.length; i++) {
+                for (int j = i + 1; j < group.length; j++) {
+                    if (problem.distance(seatOfStudent[group[i]], seatOfStudent[group[j]]) <= 1) {
+                        penalty += WEIGHT;
+                    }
+                }
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * 只有被交换的两名学生与同组其他成员之间是否相邻会变化
+     */
+    @Override
+    public double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        int studentA = studentAtSeat[a];
+        int studentB = studentAtSeat[b];
+        int delta = 0;
+        if (studentA >= 0) {
+            delta += moveDelta(problem, seatOfStudent, studentA, a, b, studentB);
+        }
+        if (studentB >= 0) {
+            delta += moveDelta(problem, seatOfStudent, studentB, b, a, studentA);
+        }
+        return WEIGHT * delta;
+    }
+
+    // student 从 from 移到 to；other 同时移到 from，二者之间的距离不变，不再重复计算
+    private static int moveDelta(SeatingProblem problem, int[] seatOfStudent, int student, int from, int to, int other) {
+        int delta = 0;
+        for (int g : problem.getApartGroupsOf(student)) {
+            for (int member : problem.getApartGroups()[g]) {
+                if (member == student || member == other) continue;
+                int seat = seatOfStudent[member];
+                delta += (problem.distance(to, seat) <= 1 ? 1 : 0) - (problem.distance(from, seat) <= 1 ? 1 : 0);
+            }
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.seatingsystem.service.optimizer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 分组相邻：同一“在一起”分组中的学生两两之间，每多隔开一个座位计一次罚分。
+ */
+@Component
+public class GroupTogetherConstraint implements SeatingConstraint {
+
+    private static final double WEIGHT = 1.0;
+
+    @Override
+    public double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent) {
+        double penalty = 0;
+        for (int[] group : problem.getTogetherGroups()) {
+            for (int i = 0; i < group.length; i++) {
+                for (int j = i + 1; j < group.length; j++) {
+                    int distance = problem.distance(seatOfStudent[group[i]], seatOfStudent[group[j]]);
+                    penalty += WEIGHT * (distance - 1);
+                }
+            }
+        }
+        return penalty;
+    }
+
+    /**
+     * 只有被交换的两名学生与同组其他成员之间的距离会变化
+     */
+    @Override
+    public double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        int studentA = studentAtSeat[a];
+        int studentB = studentAtSeat[b];
+        double delta = 0;
+        if (studentA >= 0) {
+            delta += moveDelta(problem, seatOfStudent, studentA, a, b, studentB);
+        }
+        if (studentB >= 0) {
+            delta += moveDelta(problem, seatOfStudent, studentB, b, a, studentA);
+        }
+        return WEIGHT * delta;
+    }
+
+    // student 从 from 移到 to；other 同时移到 from，二者之间的距离不变，不再重复计算
+    private static double moveDelta(SeatingProblem problem, int[] seatOfStudent, int student, int from, int to, int other) {
+        double delta = 0;
+        for (int g : problem.getTogetherGroupsOf(student)) {
+            for (int member : problem.getTogetherGroups()[g]) {
+                if (member == student || member == other) continue;
+                int seat = seatOfStudent[member];
+                delta += problem.distance(to, seat) - problem.distance(from, seat);
+            }
+        }
+        return delta;
+    }
+}
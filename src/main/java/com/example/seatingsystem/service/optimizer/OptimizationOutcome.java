@@ -0,0 +1,21 @@
+package com.example.seatingsystem.service.optimizer;
+
+/**
+ * 优化结果：最佳座位分配、对应罚分以及所有重启累计的迭代次数。
+ */
+public class OptimizationOutcome {
+
+    private final int[] studentAtSeat;
+    private final double score;
+    private final long iterations;
+
+    public OptimizationOutcome(int[] studentAtSeat, double score, long iterations) {
+        this.studentAtSeat = studentAtSeat;
+        this.score = score;
+        this.iterations = iterations;
+    }
+
+    public int[] getStudentAtSeat() { return studentAtSeat; }
+    public double getScore() { return score; }
+    public long getIterations() { return iterations; }
+}
@@ -0,0 +1,29 @@
+package com.example.seatingsystem.service.optimizer;
+
+/**
+ * 排座约束：对一个完整的座位分配打出罚分，罚分越低越好。
+ * 所有实现为 Spring Bean 时会被 {@link SeatingOptimizer} 的调用方自动收集，新增规则只需新增一个实现类。
+ * 实现必须是无状态的，因为多个重启会在 ForkJoin 线程池中并行调用同一个实例。
+ */
+public interface SeatingConstraint {
+
+    /**
+     * @param problem       排座问题
+     * @param studentAtSeat 每个座位上的学生下标，空座为 -1
+     * @param seatOfStudent 每个学生所在的座位下标
+     * @return 罚分（非负）
+     */
+    double penalty(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent);
+
+    /**
+     * 交换座位 a、b 上的学生后罚分的变化量，调用时尚未交换，实现不得修改传入的数组。
+     * 求解器每次迭代都会调用；默认实现在副本上交换后整体重新打分，
+     * 只受少数座位影响的约束应覆盖此方法，只计算与 a、b 相关的部分。
+     */
+    default double swapDelta(SeatingProblem problem, int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        int[] swappedSeats = studentAtSeat.clone();
+        int[] swappedStudents = seatOfStudent.clone();
+        SeatingOptimizer.swap(swappedSeats, swappedStudents, a, b);
+        return penalty(problem, swappedSeats, swappedStudents) - penalty(problem, studentAtSeat, seatOfStudent);
+    }
+}
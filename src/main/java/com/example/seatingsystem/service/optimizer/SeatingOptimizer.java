@@ -0,0 +1,187 @@
+package com.example.seatingsystem.service.optimizer;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 基于模拟退火的排座求解器。
+ * 在专用 ForkJoin 线程池中并行执行多次独立重启，每次重启在时间预算内不断交换两个座位，
+ * 最终返回所有重启中罚分最低的分配。
+ * 每次交换只按各约束的 {@link SeatingConstraint#swapDelta} 计算罚分变化，不再对整个教室重新打分。
+ */
+@Component
+public class SeatingOptimizer {
+
+    private static final double INITIAL_TEMPERATURE = 2.0;
+    private static final double MIN_TEMPERATURE = 0.01;
+    private static final int CLOCK_CHECK_MASK = 0xFF; // 每 256 次迭代检查一次时钟
+
+    private final long timeBudgetMillis;
+    private final int restarts;
+    private final ForkJoinPool pool;
+
+    public SeatingOptimizer(@Value("${seating.optimizer.time-budget-ms:100}") long timeBudgetMillis,
+                            @Value("${seating.optimizer.restarts:4}") int restarts,
+                            @Value("${seating.optimizer.parallelism:0}") int parallelism) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.restarts = Math.max(1, restarts);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 在配置的时间预算内求解
+     */
+    public OptimizationOutcome optimize(SeatingProblem problem, List<? extends SeatingConstraint> constraints) {
+        return optimize(problem, constraints, timeBudgetMillis, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * 求解排座问题
+     * @param problem          排座问题
+     * @param constraints      参与打分的约束
+     * @param timeBudgetMillis 时间预算（毫秒）
+     * @param seed             随机种子，相同种子在相同时间内的搜索路径可复现
+     */
+    public OptimizationOutcome optimize(SeatingProblem problem, List<? extends SeatingConstraint> constraints,
+                                        long timeBudgetMillis, long seed) {
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        SplittableRandom root = new SplittableRandom(seed);
+
+        List<Callable<OptimizationOutcome>> tasks = new ArrayList<>(restarts);
+        for (int i = 0; i < restarts; i++) {
+            SplittableRandom random = root.split(); // 每个重启使用独立的随机流
+            tasks.add(() -> anneal(problem, constraints, random, deadline));
+        }
+
+        OptimizationOutcome best = null;
+        long totalIterations = 0;
+        try {
+            for (Future<OptimizationOutcome> future : pool.invokeAll(tasks)) {
+                OptimizationOutcome outcome = future.get();
+                totalIterations += outcome.getIterations();
+                if (best == null || outcome.getScore() < best.getScore()) {
+                    best = outcome;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("排座优化被中断。", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("排座优化失败: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return new OptimizationOutcome(best.getStudentAtSeat(), best.getScore(), totalIterations);
+    }
+
+    /**
+     * 单次重启：随机初始解 + 线性降温的模拟退火
+     */
+    private OptimizationOutcome anneal(SeatingProblem problem, List<? extends SeatingConstraint> constraints,
+                                       SplittableRandom random, long deadline) {
+        int seatCount = problem.getSeatCount();
+        int studentCount = problem.getStudentCount();
+
+        // 1. 随机初始解：打乱座位顺序后依次分配
+        int[] studentAtSeat = new int[seatCount];
+        int[] seatOfStudent = new int[studentCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            studentAtSeat[seat] = seat < studentCount ? seat : -1;
+        }
+        for (int i = seatCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = studentAtSeat[i];
+            studentAtSeat[i] = studentAtSeat[j];
+            studentAtSeat[j] = tmp;
+        }
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (studentAtSeat[seat] >= 0) seatOfStudent[studentAtSeat[seat]] = seat;
+        }
+
+        double current = score(problem, constraints, studentAtSeat, seatOfStudent);
+        double best = current;
+        int[] bestSeats = studentAtSeat.clone();
+
+        if (seatCount < 2 || studentCount == 0) {
+            return new OptimizationOutcome(bestSeats, best, 0);
+        }
+
+        // 2. 退火：每次交换两个座位（至少一个有人），按 Metropolis 准则接受
+        long start = System.nanoTime();
+        long span = Math.max(1, deadline - start);
+        double temperature = INITIAL_TEMPERATURE;
+        long iterations = 0;
+
+        while (true) {
+            if ((iterations & CLOCK_CHECK_MASK) == 0) {
+                long now = System.nanoTime();
+                if (now >= deadline || best == 0) break;
+                double progress = (double) (now - start) / span;
+                temperature = Math.max(MIN_TEMPERATURE, INITIAL_TEMPERATURE * (1 - progress));
+            }
+            iterations++;
+
+            int a = random.nextInt(seatCount);
+            int b = random.nextInt(seatCount);
+            if (a == b || (studentAtSeat[a] < 0 && studentAtSeat[b] < 0)) continue;
+
+            double delta = swapDelta(problem, constraints, studentAtSeat, seatOfStudent, a, b);
+
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                swap(studentAtSeat, seatOfStudent, a, b);
+                current += delta;
+                if (current < best) {
+                    best = current;
+                    System.arraycopy(studentAtSeat, 0, bestSeats, 0, seatCount);
+                }
+            }
+        }
+
+        // 增量累加会带来浮点误差，返回前对最优解完整打分一次
+        int[] bestSeatOfStudent = new int[studentCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (bestSeats[seat] >= 0) bestSeatOfStudent[bestSeats[seat]] = seat;
+        }
+        return new OptimizationOutcome(bestSeats, score(problem, constraints, bestSeats, bestSeatOfStudent), iterations);
+    }
+
+    static void swap(int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        int studentA = studentAtSeat[a];
+        int studentB = studentAtSeat[b];
+        studentAtSeat[a] = studentB;
+        studentAtSeat[b] = studentA;
+        if (studentA >= 0) seatOfStudent[studentA] = b;
+        if (studentB >= 0) seatOfStudent[studentB] = a;
+    }
+
+    private static double swapDelta(SeatingProblem problem, List<? extends SeatingConstraint> constraints,
+                                     int[] studentAtSeat, int[] seatOfStudent, int a, int b) {
+        double total = 0;
+        for (SeatingConstraint constraint : constraints) {
+            total += constraint.swapDelta(problem, studentAtSeat, seatOfStudent, a, b);
+        }
+        return total;
+    }
+
+    private static double score(SeatingProblem problem, List<? extends SeatingConstraint> constraints,
+                                int[] studentAtSeat, int[] seatOfStudent) {
+        double total = 0;
+        for (SeatingConstraint constraint : constraints) {
+            total += constraint.penalty(problem, studentAtSeat, seatOfStudent);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.seatingsystem.service.optimizer;
+
+import com.example.seatingsystem.entity.Student;
+
+import java.util.List;
+
+/**
+ * 排座优化问题的不可变描述：座位网格、学生以及分组约束。
+ * 学生在内部以下标 (0..m-1) 表示，座位以 (row-1)*cols+(col-1) 表示。
+ */
+public class SeatingProblem {
+
+    private final int rows;
+    private final int cols;
+    private final List<Student> students;
+    private final int[][] togetherGroups; // 需要坐在一起的学生下标
+    private final int[][] apartGroups;    // 需要分开的学生下标
+    private final double[][] bandShares;  // 每个学生过去坐在各区域的比例 [前,中,后,左,中,右]，为 null 时不考虑历史
+    private final int[][] togetherGroupsOf; // 每个学生所在的“在一起”分组下标，供交换时增量计分
+    private final int[][] apartGroupsOf;    // 每个学生所在的“需要分开”分组下标
+
+    public SeatingProblem(int rows, int cols, List<Student> students, int[][] togetherGroups, int[][] apartGroups) {
+        this(rows, cols, students, togetherGroups, apartGroups, null);
+    }
+
+    public SeatingProblem(int rows, int cols, List<Student> students, int[][] togetherGroups, int[][] apartGroups,
+                          double[][] bandShares) {
+        if (rows * cols < students.size()) {
+            throw new IllegalArgumentException("总座位数 (" + (rows * cols) + ") 小于学生总人数 (" + students.size() + ")");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.students = List.copyOf(students);
+        this.togetherGroups = togetherGroups;
+        this.apartGroups = apartGroups;
+        this.bandShares = bandShares;
+        this.togetherGroupsOf = groupsOf(togetherGroups, students.size());
+        this.apartGroupsOf = groupsOf(apartGroups, students.size());
+    }
+
+    private static int[][] groupsOf(int[][] groups, int studentCount) {
+        int[] counts = new int[studentCount];
+        for (int[] group : groups) {
+            for (int student : group) counts[student]++;
+        }
+        int[][] groupsOf = new int[studentCount][];
+        for (int student = 0; student < studentCount; student++) {
+            groupsOf[student] = new int[counts[student]];
+            counts[student] = 0;
+        }
+        for (int g = 0; g < groups.length; g++) {
+            for (int student : groups[g]) groupsOf[student][counts[student]++] = g;
+        }
+        return groupsOf;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getSeatCount() { return rows * cols; }
+    public int getStudentCount() { return students.size(); }
+    public List<Student> getStudents() { return students; }
+    public Student getStudent(int index) { return students.get(index); }
+    public int[][] getTogetherGroups() { return togetherGroups; }
+    public int[][] getApartGroups() { return apartGroups; }
+    public double[][] getBandShares() { return bandShares; }
+    public int[] getTogetherGroupsOf(int student) { return togetherGroupsOf[student]; }
+    public int[] getApartGroupsOf(int student) { return apartGroupsOf[student]; }
+
+    /** 座位下标对应的行号 (从 0 开始) */
+    public int rowOf(int seat) { return seat / cols; }
+
+    /** 座位下标对应的列号 (从 0 开始) */
+    public int colOf(int seat) { return seat % cols; }
+
+    /** 两个座位之间的切比雪夫距离（相邻座位距离为 1） */
+    public int distance(int seatA, int seatB) {
+        return Math.max(Math.abs(rowOf(seatA) - rowOf(seatB)), Math.abs(colOf(seatA) - colOf(seatB)));
+    }
+}
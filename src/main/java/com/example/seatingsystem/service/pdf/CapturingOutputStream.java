@@ -0,0 +1,51 @@
+package com.example.seatingsystem.service.pdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 写出的同时保留一份副本（用于缓存生成的 PDF），副本超过上限后放弃保留，不影响写出
+ */
+public class CapturingOutputStream extends FilterOutputStream {
+
+    private final int limit;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    public CapturingOutputStream(OutputStream out, int limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (reserve(1)) {
+            copy.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (reserve(len)) {
+            copy.write(b, off, len);
+        }
+    }
+
+    // 副本还能容纳 len 个字节时返回 true；超过上限则丢弃副本，不再保留
+    private boolean reserve(int len) {
+        if (copy != null && copy.size() + len > limit) {
+            copy = null;
+        }
+        return copy != null;
+    }
+
+    /**
+     * 写出内容的完整副本；超过上限时返回 null
+     */
+    public byte[] getCapturedBytes() {
+        return copy == null ? null : copy.toByteArray();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.seatingsystem.service.pdf;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.pdf.BaseFont;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TTFSubsetter;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 进程级的 PDF 字体缓存，并负责只嵌入实际用到的字形。
+ * <p>
+ * 字体文件只在第一次导出时从 classpath 读取一次。之后按字体轮廓类型分两种方式工作：
+ * <ul>
+ *     <li>TrueType 轮廓（glyf，例如 NotoSansSC-Regular.ttf）：按文档用到的字符集合自行裁剪出子集字体，
+ *     并以字符集合为键缓存裁剪结果（LRU），相同名单的班级重复导出时不再重复裁剪；</li>
+ *     <li>CFF 轮廓（例如默认的 NotoSansCJK-Regular.otf）：共享一个 BaseFont，沿用 iText 默认的写出时 CFF 子集化，
+ *     输出与原来相同。iText 在 CFF 子集化出错时会把该 BaseFont 永久切换为整体嵌入，
+ *     发现这种情况时换用新建的 BaseFont，而不是修改共享实例。</li>
+ * </ul>
+ * 本类不修改已缓存的 BaseFont/Font，可以跨线程共享。
+ */
+@Component
+public class SeatingPdfFonts {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatingPdfFonts.class);
+
+    private final String fontPath;
+    private final int subsetCacheSize;
+
+    private volatile FontSource source; // 延迟加载，避免字体缺失时应用无法启动
+
+    // 字符集合 -> 子集字体样式，按访问顺序淘汰
+    private final Map<String, Styles> subsetCache;
+
+    public SeatingPdfFonts(@Value("${seating.pdf.font-path:fonts/NotoSansCJK-Regular.otf}") String fontPath,
+                           @Value("${seating.pdf.subset-cache-size:256}") int subsetCacheSize) {
+        this.fontPath = fontPath;
+        this.subsetCacheSize = subsetCacheSize;
+        this.subsetCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Styles> eldest) {
+                return size() > SeatingPdfFonts.this.subsetCacheSize;
+            }
+        };
+    }
+
+    /**
+     * 导出 PDF 使用的一组字体样式（只读）
+     */
+    public static final class Styles {
+        private final BaseFont baseFont;
+        private final Font titleFont;
+        private final Font headerFont;
+        private final Font cellFont;
+        private final boolean ownSubset; // 是否为我们自行裁剪的子集字体
+
+        private Styles(BaseFont baseFont, boolean ownSubset) {
+            this.baseFont = baseFont;
+            this.ownSubset = ownSubset;
+            this.titleFont = new Font(baseFont, 18, Font.BOLD);
+            this.headerFont = new Font(baseFont, 10, Font.BOLD, BaseColor.WHITE);
+            this.cellFont = new Font(baseFont, 10, Font.NORMAL);
+        }
+
+        public BaseFont getBaseFont() { return baseFont; }
+        public Font getTitleFont() { return titleFont; }
+        public Font getHeaderFont() { return headerFont; }
+        public Font getCellFont() { return cellFont; }
+        public boolean isOwnSubset() { return ownSubset; }
+    }
+
+    /**
+     * 已加载的字体：TrueType 字体保留 FontBox 解析结果用于裁剪，CFF 字体保留共享的整字体样式（二者只有一个非空）
+     */
+    private static final class FontSource {
+        private final TrueTypeFont trueType;
+        private final Styles fullFont;
+
+        private FontSource(TrueTypeFont trueType, Styles fullFont) {
+            this.trueType = trueType;
+            this.fullFont = fullFont;
+        }
+    }
+
+    /**
+     * 获取能够渲染给定文本的字体样式
+     * @param text 文档中将要出现的全部文字，用于确定需要保留的字形
+     */
+    public Styles styles(CharSequence text) throws Exception {
+        FontSource current = source();
+
+        if (current.trueType == null) {
+            // CFF 字体：交给 iText 子集化；之前的失败已把共享字体切换成整体嵌入时换用新字体
+            if (!current.fullFont.getBaseFont().isSubset()) {
+                current = replaceSource(current);
+            }
+            return current.fullFont;
+        }
+
+        Set<Integer> codePoints = new TreeSet<>();
+        text.codePoints().filter(cp -> !Character.isISOControl(cp)).forEach(codePoints::add);
+        String key = glyphSetKey(codePoints);
+
+        synchronized (subsetCache) {
+            Styles cached = subsetCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Styles created = new Styles(createSubsetFont(current, codePoints), true);
+        synchronized (subsetCache) {
+            Styles raced = subsetCache.putIfAbsent(key, created);
+            return raced != null ? raced : created;
+        }
+    }
+
+    /**
+     * 当前缓存的子集字体数量
+     */
+    public int cachedSubsetCount() {
+        synchronized (subsetCache) {
+            return subsetCache.size();
+        }
+    }
+
+    private static String glyphSetKey(Set<Integer> codePoints) {
+        StringBuilder key = new StringBuilder(codePoints.size());
+        for (int cp : codePoints) {
+            key.appendCodePoint(cp);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 用 FontBox 将 TrueType 字体裁剪为只包含指定字符的子集，再交给 iText 作为嵌入字体
+     */
+    private BaseFont createSubsetFont(FontSource current, Set<Integer> codePoints) throws Exception {
+        ByteArrayOutputStream subsetBytes = new ByteArrayOutputStream();
+        synchronized (current.trueType) { // FontBox 的表是延迟读取的，不保证并发安全
+            TTFSubsetter subsetter = new TTFSubsetter(current.trueType);
+            subsetter.addAll(codePoints);
+            subsetter.writeToStream(subsetBytes);
+        }
+
+        return BaseFont.createFont(
+                "SeatingSubset-" + Integer.toHexString(codePoints.hashCode()) + ".ttf",
+                BaseFont.IDENTITY_H,
+                BaseFont.EMBEDDED,
+                BaseFont.NOT_CACHED, // 子集字体由本类自己缓存
+                subsetBytes.toByteArray(),
+                null
+        );
+    }
+
+    private FontSource source() throws Exception {
+        FontSource current = source;
+        if (current == null) {
+            synchronized (this) {
+                current = source;
+                if (current == null) {
+                    current = loadSource();
+                    source = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized FontSource replaceSource(FontSource stale) throws Exception {
+        if (source == stale) {
+            log.warn("iText disabled CFF subsetting for {} after an error, loading a fresh font", fontPath);
+            source = loadSource();
+        }
+        return source;
+    }
+
+    private FontSource loadSource() throws Exception {
+        // 使用 Spring ClassPathResource 确保在打包后也能找到资源
+        ClassPathResource fontResource = new ClassPathResource(fontPath);
+        if (!fontResource.exists()) {
+            throw new RuntimeException("Font resource '" + fontPath + "' not found in classpath.");
+        }
+
+        byte[] fontBytes;
+        try (InputStream fontStream = fontResource.getInputStream()) {
+            fontBytes = fontStream.readAllBytes();
+        }
+
+        // sfnt 版本号 0x00010000 或 'true' 表示 TrueType 轮廓，'OTTO' 表示 CFF 轮廓
+        boolean trueTypeOutlines = fontBytes.length >= 4
+                && ((fontBytes[0] == 0 && fontBytes[1] == 1 && fontBytes[2] == 0 && fontBytes[3] == 0)
+                || (fontBytes[0] == 't' && fontBytes[1] == 'r' && fontBytes[2] == 'u' && fontBytes[3] == 'e'));
+
+        if (trueTypeOutlines) {
+            log.info("Loaded PDF font {} ({} bytes, TrueType outlines, subsetting per glyph set)", fontPath, fontBytes.length);
+            return new FontSource(new TTFParser().parse(new RandomAccessReadBuffer(fontBytes)), null);
+        }
+
+        // 使用自定义名称和字节数组创建 BaseFont
+        BaseFont fullFont = BaseFont.createFont(
+                fontResource.getFilename(),     // 使用文件名作为内部别名
+                BaseFont.IDENTITY_H,
+                BaseFont.EMBEDDED,
+                BaseFont.NOT_CACHED, // 由本类缓存；使用 iText 的缓存时重新加载会拿回同一个已切换为整体嵌入的实例
+                fontBytes,
+                null
+        );
+
+        log.info("Loaded PDF font {} ({} bytes, CFF outlines, subset by iText)", fontPath, fontBytes.length);
+        return new FontSource(null, new Styles(fullFont, false));
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.seatingsystem.service.push;
+
+import com.example.seatingsystem.config.CompactSeatingMessageConverter;
+import com.example.seatingsystem.model.ArrangementDiff;
+import com.example.seatingsystem.model.ArrangementVersion;
+import com.example.seatingsystem.model.SeatGrid;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.service.SeatingArrangementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按班级向展示端（投影仪上打开的座位面板）推送新保存的排座（Server-Sent Events）
+ * 连接由 Servlet 异步请求保持，空闲连接不占用线程。订阅时在请求线程中加载当前排座，保存时在保存线程中
+ * 计算增量并序列化一次；消息放入每个连接自己的队列，由少量写线程逐个连接写出。
+ * 单个连接写出超过 write-timeout-ms 或积压超过 max-queued-messages 条时断开该连接（浏览器会自动重连并取得完整排座），
+ * 不会拖慢其他班级和其他展示端。
+ * 每个有订阅者的班级保留最近推送的排座，新排座与其相比变化不大时只推送变化的座位。
+ */
+@Service
+public class ArrangementBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ArrangementBroadcaster.class);
+
+    public static final String EVENT_ARRANGEMENT = "arrangement"; // 完整排座（紧凑格式），id 为记录ID
+    public static final String EVENT_DIFF = "diff"; // 增量（ArrangementDiff），id 为记录ID
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final SeatingArrangementService seatingArrangementService;
+    private final ObjectMapper objectMapper;
+    private final CompactSeatingMessageConverter compactConverter;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final long writeTimeoutNanos;
+    private final int maxQueuedMessages;
+    private final ExecutorService writers;
+    private final ConcurrentMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ArrangementBroadcaster(SeatingArrangementService seatingArrangementService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${seating.push.timeout-ms:1800000}") long timeoutMillis,
+                                  @Value("${seating.push.retry-ms:5000}") long retryMillis,
+                                  @Value("${seating.push.writer-threads:4}") int writerThreads,
+                                  @Value("${seating.push.write-timeout-ms:10000}") long writeTimeoutMillis,
+                                  @Value("${seating.push.max-queued-messages:32}") int maxQueuedMessages) {
+        this.seatingArrangementService = seatingArrangementService;
+        this.objectMapper = objectMapper;
+        this.compactConverter = new CompactSeatingMessageConverter(objectMapper);
+        this.timeoutMillis = timeoutMillis;
+        this.retryMillis = retryMillis;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.maxQueuedMessages = Math.max(1, maxQueuedMessages);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "seating-push-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * 订阅班级的排座推送：连接建立后先发送当前排座（重连时 lastEventId 与当前记录一致则跳过）
+     * 班级尚无订阅者时在调用线程（请求线程）中加载当前排座
+     * @param lastEventId 浏览器重连时带回的 Last-Event-ID，可为空
+     */
+    public SseEmitter subscribe(Long classId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(classId, emitter);
+        emitter.onTimeout(emitter::complete); // 超时后浏览器按 retry 间隔自动重连
+        emitter.onCompletion(connection::discard);
+        emitter.onError(e -> connection.discard());
+
+        try {
+            while (true) {
+                Channel channel = channels.computeIfAbsent(classId, id -> new Channel());
+                if (!channel.loaded) {
+                    ArrangementVersion version = seatingArrangementService.getArrangementVersion(classId);
+                    SeatingResult arrangement = seatingArrangementService.getLatestArrangement(classId).orElse(null);
+                    channel.initialize(version.getRecordId(), arrangement);
+                }
+
+                synchronized (channel) {
+                    if (channel.closed) {
+                        continue; // 通道刚因最后一个连接断开而移除，重新创建
+                    }
+                    channel.connections.add(connection);
+                    // 在通道锁内放入首条消息，保证它排在之后推送的排座之前
+                    if (channel.arrangement != null && !Objects.equals(String.valueOf(channel.recordId), lastEventId)) {
+                        connection.enqueue(fullMessage(channel.recordId, channel.arrangement));
+                    } else {
+                        connection.enqueue(SseEmitter.event().comment("connected").reconnectTime(retryMillis).build());
+                    }
+                }
+                return emitter;
+            }
+        } catch (Exception e) {
+            log.debug("Could not open seating stream for class {}: {}", classId, e.getMessage());
+            connection.close(e);
+            return emitter;
+        }
+    }
+
+    /**
+     * 排座记录提交后推送（非事务调用时直接推送）：在保存线程中计算增量并序列化，写出交给写线程
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArrangementSaved(ArrangementSavedEvent event) {
+        Channel channel = channels.get(event.getClassId());
+        if (channel == null) {
+            return; // 该班级没有展示端订阅
+        }
+        try {
+            synchronized (channel) {
+                if (channel.closed) {
+                    return;
+                }
+                ArrangementDiff diff = channel.loaded ? diff(channel, event) : null;
+                Set<DataWithMediaType> message = diff != null
+                        ? diffMessage(diff)
+                        : fullMessage(event.getRecordId(), event.getResult());
+                channel.recordId = event.getRecordId();
+                channel.arrangement = event.getResult();
+                channel.loaded = true;
+                for (Connection connection : new ArrayList<>(channel.connections)) {
+                    connection.enqueue(message); // 积压过多的连接会在这里被断开并移出通道
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not push arrangement of class {}: {}", event.getClassId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 定时发送心跳注释，防止代理断开空闲连接；同时断开写出卡住的连接
+     * 只向各连接的队列放入消息，不在调度线程中写 socket
+     */
+    @Scheduled(fixedDelayString = "${seating.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> message = SseEmitter.event().comment("heartbeat").build();
+        long now = System.nanoTime();
+        for (Channel channel : channels.values()) {
+            List<Connection> connections;
+            synchronized (channel) {
+                connections = new ArrayList<>(channel.connections);
+            }
+            for (Connection connection : connections) {
+                if (!connection.closeIfStalled(now)) {
+                    connection.enqueue(message);
+                }
+            }
+        }
+    }
+
+    /**
+     * 与上次推送的排座比较：行列数相同且变化的座位不超过一半时返回增量，否则返回 null（推送完整排座）
+     */
+    private ArrangementDiff diff(Channel channel, ArrangementSavedEvent event) {
+        if (channel.arrangement == null || channel.recordId == null) {
+            return null;
+        }
+        SeatGrid previous = channel.arrangement.grid();
+        SeatGrid current = event.getResult().grid();
+        if (previous.getRows() != current.getRows() || previous.getCols() != current.getCols()) {
+            return null;
+        }
+
+        List<SeatingPosition> changes = current.changesFrom(previous);
+        if (changes.size() * 2 > current.getRows() * current.getCols()) {
+            return null;
+        }
+        return new ArrangementDiff(event.getRecordId(), channel.recordId, current.getRows(), current.getCols(), changes);
+    }
+
+    // 消息只构建、序列化一次，再写给班级的所有连接
+    private Set<DataWithMediaType> fullMessage(Long recordId, SeatingResult arrangement) throws Exception {
+        return SseEmitter.event().name(EVENT_ARRANGEMENT).id(String.valueOf(recordId)).reconnectTime(retryMillis)
+                .data(compactConverter.writeAsString(arrangement), TEXT_UTF8).build();
+    }
+
+    private Set<DataWithMediaType> diffMessage(ArrangementDiff diff) throws Exception {
+        return SseEmitter.event().name(EVENT_DIFF).id(String.valueOf(diff.getRecordId()))
+                .data(objectMapper.writeValueAsString(diff), TEXT_UTF8).build();
+    }
+
+    private void remove(Connection connection) {
+        Channel channel = channels.get(connection.classId);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            channel.connections.remove(connection);
+            if (channel.connections.isEmpty()) {
+                channel.closed = true;
+                channels.remove(connection.classId, channel);
+            }
+        }
+    }
+
+    // 一个班级的订阅者和最近推送的排座（字段在通道锁内读写）
+    private static class Channel {
+        private final Set<Connection> connections = new LinkedHashSet<>();
+        private volatile boolean loaded;
+        private boolean closed; // 已从 channels 中移除，不再接受新连接
+        private Long recordId;
+        private SeatingResult arrangement;
+
+        /**
+         * 设置首个订阅者加载的当前排座；加载期间已有新排座推送时保留推送的排座
+         */
+        synchronized void initialize(Long recordId, SeatingResult arrangement) {
+            if (!loaded) {
+                this.recordId = recordId;
+                this.arrangement = arrangement;
+                this.loaded = true;
+            }
+        }
+    }
+
+    // 一个展示端连接：消息按顺序排队，同一时刻最多一个写线程在写出
+    private final class Connection implements Runnable {
+        private final Long classId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>(); // 在连接锁内访问
+        private boolean scheduled; // 已交给写线程
+        private boolean closed;
+        private volatile Thread writer; // 正在写出的线程
+        private volatile long writeStartNanos;
+
+        Connection(Long classId, SseEmitter emitter) {
+            this.classId = classId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<DataWithMediaType> message) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() < maxQueuedMessages) {
+                    queue.add(message);
+                    if (scheduled) {
+                        return;
+                    }
+                    scheduled = true;
+                    message = null;
+                }
+            }
+            if (message != null) {
+                // 展示端读取太慢：断开后浏览器重连时会重新取得完整排座
+                close(new TimeoutException("Too many queued seating messages"));
+                return;
+            }
+            try {
+                writers.execute(this);
+            } catch (RejectedExecutionException e) {
+                close(null); // 应用正在关闭
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Set<DataWithMediaType> message;
+                synchronized (this) {
+                    message = closed ? null : queue.poll();
+                    if (message == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                writeStartNanos = System.nanoTime();
+                writer = Thread.currentThread();
+                try {
+                    emitter.send(message);
+                } catch (Exception e) {
+                    close(e); // 连接已断开或写出超时被中断
+                } finally {
+                    writer = null;
+                }
+            }
+        }
+
+        /**
+         * 当前写出已超过 write-timeout-ms 时断开连接并中断写线程
+         * @return 连接是否因此被断开
+         */
+        boolean closeIfStalled(long nowNanos) {
+            Thread thread = writer;
+            if (thread == null || nowNanos - writeStartNanos <= writeTimeoutNanos) {
+                return false;
+            }
+            close(new TimeoutException("Seating stream write timed out"));
+            thread.interrupt();
+            return true;
+        }
+
+        /**
+         * 主动断开：不再写出，从班级通道移除并结束异步请求
+         */
+        void close(Throwable error) {
+            if (!markClosed()) {
+                return;
+            }
+            remove(this);
+            try {
+                if (error == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(error);
+                }
+            } catch (Exception e) {
+                // 连接已经结束
+            }
+        }
+
+        /**
+         * 异步请求已结束（浏览器断开、超时或出错）：只做清理
+         */
+        void discard() {
+            markClosed();
+            remove(this);
+        }
+
+        private synchronized boolean markClosed() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            queue.clear();
+            return true;
+        }
+    }
+}
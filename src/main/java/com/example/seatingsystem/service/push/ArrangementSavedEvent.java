@@ -0,0 +1,22 @@
+package com.example.seatingsystem.service.push;
+
+import com.example.seatingsystem.model.SeatingResult;
+
+/**
+ * 排座记录已保存（事务提交后由 ArrangementBroadcaster 推送给该班级的展示端）
+ */
+public class ArrangementSavedEvent {
+    private final Long classId;
+    private final Long recordId;
+    private final SeatingResult result;
+
+    public ArrangementSavedEvent(Long classId, Long recordId, SeatingResult result) {
+        this.classId = classId;
+        this.recordId = recordId;
+        this.result = result;
+    }
+
+    public Long getClassId() { return classId; }
+    public Long getRecordId() { return recordId; }
+    public SeatingResult getResult() { return result; }
+}
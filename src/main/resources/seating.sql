@@ -25,6 +25,7 @@ CREATE TABLE classroom (
     description VARCHAR(255) COMMENT '班级描述',
     -- seat_layout 存储 JSON 字符串，定义班级的座位布局（如行数、列数、讲台位置等）
     seat_layout TEXT COMMENT '座位布局配置（JSON格式）',
+    roster_version BIGINT NOT NULL DEFAULT 0 COMMENT '名单版本（学生名单变化时加一）',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (teacher_id) REFERENCES user(id)
 ) COMMENT '班级信息表';
@@ -42,19 +43,31 @@ CREATE TABLE student (
     is_active BOOLEAN NOT NULL DEFAULT TRUE COMMENT '是否活跃（是否在当前班级中）',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (class_id) REFERENCES classroom(id),
-    UNIQUE KEY uk_class_student (class_id, student_no) -- 同一班级学号唯一
+    UNIQUE KEY uk_class_student (class_id, student_no), -- 同一班级学号唯一
+    INDEX idx_student_roster (class_id, is_active, student_no) -- 学生管理页按学号键集分页
 ) COMMENT '学生信息表';
 
--- 5. 排座记录表 (SeatingRecord)
--- 存储每次排座的最终结果快照
+-- 5. 排座快照表 (SeatingSnapshot) 与排座记录表 (SeatingRecord)
+-- 快照按内容的 SHA-256 存储一次，多条内容相同的排座记录引用同一份快照
+CREATE TABLE seating_snapshot (
+    content_hash CHAR(64) PRIMARY KEY COMMENT '快照 JSON 的 SHA-256（小写十六进制）',
+    -- layout_snapshot 存储规范化的 JSON 字符串，记录当时的座位图：{row: 1, col: 2, studentId: 101, studentName: '张三'}
+    layout_snapshot LONGTEXT NOT NULL COMMENT '座位布局快照（JSON格式，记录每个座位上的学生ID）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '首次写入时间'
+) COMMENT '排座布局快照表（按内容去重，写入后不再修改）';
+
+-- 存储每次排座的记录，布局引用 seating_snapshot
 CREATE TABLE seating_record (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
     class_id BIGINT NOT NULL COMMENT '关联的班级ID',
     record_name VARCHAR(100) NOT NULL COMMENT '排座记录名称（如 2025年秋季-第一次随机排座）',
-    -- layout_snapshot 存储 JSON 字符串，记录当时的座位图：{row: 1, col: 2, studentId: 101, studentName: '张三'}
-    layout_snapshot LONGTEXT NOT NULL COMMENT '座位布局快照（JSON格式，记录每个座位上的学生ID）',
+    snapshot_hash CHAR(64) NOT NULL COMMENT '座位布局快照的内容哈希',
+    seat_count INT COMMENT '已就座人数（历史列表展示用，无需解析快照）',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '记录创建时间',
-    FOREIGN KEY (class_id) REFERENCES classroom(id)
+    FOREIGN KEY (class_id) REFERENCES classroom(id),
+    FOREIGN KEY (snapshot_hash) REFERENCES seating_snapshot(content_hash),
+    INDEX idx_seating_record_class_time (class_id, create_time), -- 按班级取最新记录
+    INDEX idx_seating_record_snapshot (snapshot_hash)
 ) COMMENT '排座历史记录表';
 
 -- 6. 学生分组表 (StudentGroup)
@@ -65,12 +78,50 @@ CREATE TABLE student_group (
     name VARCHAR(100) NOT NULL COMMENT '分组名称',
     -- student_ids 存储逗号分隔的学生ID列表，或 JSON 数组
     student_ids TEXT COMMENT '该组包含的学生ID列表（逗号分隔或JSON数组）',
-    description VARCHAR(255) COMMENT '分组描述（如：需要在一起的、需要分开的等）',
+    description VARCHAR(255) COMMENT '分组描述',
+    group_type VARCHAR(20) NOT NULL DEFAULT 'TOGETHER' COMMENT '分组类型：TOGETHER 需要坐在一起，APART 需要分开',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (class_id) REFERENCES classroom(id)
 ) COMMENT '学生分组信息表';
 
--- 7. 初始数据插入（可选）：创建一个默认的管理员用户
+-- 7. 座位区域统计表 (SeatPositionStat)
+-- 每保存一次排座记录，按学生累加其所在的行区域（前/中/后）和列区域（左/中/右）
+CREATE TABLE seat_position_stat (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    class_id BIGINT NOT NULL COMMENT '关联的班级ID',
+    student_id BIGINT NOT NULL COMMENT '学生ID',
+    seated_count INT NOT NULL DEFAULT 0 COMMENT '出现在排座记录中的次数',
+    front_count INT NOT NULL DEFAULT 0 COMMENT '前排区域次数',
+    middle_count INT NOT NULL DEFAULT 0 COMMENT '中间排区域次数',
+    back_count INT NOT NULL DEFAULT 0 COMMENT '后排区域次数',
+    left_count INT NOT NULL DEFAULT 0 COMMENT '左侧区域次数',
+    center_count INT NOT NULL DEFAULT 0 COMMENT '中间列区域次数',
+    right_count INT NOT NULL DEFAULT 0 COMMENT '右侧区域次数',
+    update_time DATETIME,
+    FOREIGN KEY (class_id) REFERENCES classroom(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_seat_stat_class_student (class_id, student_id) -- 增量更新使用 ON DUPLICATE KEY UPDATE
+) COMMENT '学生座位区域统计表';
+
+-- 8. 后台任务表 (AsyncJob)
+-- PDF 导出、名单导入、批量轮换等任务的状态、进度与结果文件位置
+CREATE TABLE async_job (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    job_type VARCHAR(30) NOT NULL COMMENT '任务类型',
+    status VARCHAR(20) NOT NULL COMMENT '状态：PENDING/RUNNING/SUCCEEDED/FAILED/CANCELLED',
+    owner_id BIGINT NOT NULL COMMENT '提交者用户ID',
+    class_id BIGINT COMMENT '涉及的班级ID',
+    progress INT NOT NULL DEFAULT 0 COMMENT '进度 0-100',
+    message VARCHAR(500) COMMENT '结果摘要或失败原因',
+    result_path VARCHAR(500) COMMENT '结果文件位置',
+    result_name VARCHAR(200) COMMENT '下载文件名',
+    result_content_type VARCHAR(100) COMMENT '结果文件类型',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    start_time DATETIME,
+    finish_time DATETIME,
+    INDEX idx_async_job_owner_time (owner_id, create_time)
+) COMMENT '后台任务表';
+
+-- 9. 初始数据插入（可选）：创建一个默认的管理员用户
 INSERT INTO user (username, password, real_name, role) VALUES 
 ('admin', '$2a$10$wTf2z/JcWp.7pX/Z8uS3X.fO0t0.hQ6/jYQp/v.kZ5.tXk5N2p.M', '系统管理员', 'ADMIN');
 -- 注意：上面的密码字段值是 'password' 经过 BCrypt 加密后的示例（如果使用 Spring Security），
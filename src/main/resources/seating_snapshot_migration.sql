@@ -0,0 +1,60 @@
+-- 排座快照去重迁移：将 seating_record.layout_snapshot 移入按内容哈希去重的 seating_snapshot 表
+-- 只需在已有数据库上执行一次（新建的数据库直接使用 seating.sql）；执行前请先备份
+-- 请在启动新版本应用之前执行；若已以 ddl-auto=update 启动过，自动创建的表、列和索引会被跳过，空哈希会被回填
+-- 本脚本按旧快照的原始内容计算哈希，而应用保存时哈希的是规范化后的 JSON，迁移来的快照无法与新记录去重；
+-- 执行后请以 seating.snapshot.canonicalize-on-startup=true 启动一次应用（SnapshotCanonicalizer），
+-- 由应用用相同的序列化方式重写旧快照并更新记录引用，完成后关闭该配置
+
+USE seating;
+
+-- 1. 快照表
+CREATE TABLE IF NOT EXISTS seating_snapshot (
+    content_hash CHAR(64) PRIMARY KEY COMMENT '快照 JSON 的 SHA-256（小写十六进制）',
+    layout_snapshot LONGTEXT NOT NULL COMMENT '座位布局快照（JSON格式，记录每个座位上的学生ID）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '首次写入时间'
+) COMMENT '排座布局快照表（按内容去重，写入后不再修改）';
+
+-- 2. 记录表新增哈希列（先允许为空，回填后再改为 NOT NULL）
+SET @has_hash = (SELECT COUNT(*) FROM information_schema.COLUMNS
+                 WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seating_record' AND COLUMN_NAME = 'snapshot_hash');
+SET @sql = IF(@has_hash = 0,
+              'ALTER TABLE seating_record ADD COLUMN snapshot_hash CHAR(64) NULL AFTER record_name',
+              'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 3. 回填：SHA2 按 utf8mb4 字节计算，与应用中的 SeatingSnapshot.hashOf 一致；原始内容相同的只保留一份
+UPDATE seating_record SET snapshot_hash = SHA2(layout_snapshot, 256) WHERE snapshot_hash IS NULL OR snapshot_hash = '';
+
+INSERT IGNORE INTO seating_snapshot (content_hash, layout_snapshot, create_time)
+SELECT r.snapshot_hash, r.layout_snapshot, r.create_time
+FROM seating_record r
+JOIN (SELECT MIN(id) AS id FROM seating_record GROUP BY snapshot_hash) first_use ON first_use.id = r.id;
+
+-- 4. 收紧约束并删除旧列（历史表从此只保存 64 字节的哈希）
+ALTER TABLE seating_record
+    MODIFY snapshot_hash CHAR(64) NOT NULL COMMENT '座位布局快照的内容哈希',
+    DROP COLUMN layout_snapshot;
+
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seating_record' AND INDEX_NAME = 'idx_seating_record_snapshot');
+SET @sql = IF(@has_index = 0,
+              'ALTER TABLE seating_record ADD INDEX idx_seating_record_snapshot (snapshot_hash)',
+              'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_fk = (SELECT COUNT(*) FROM information_schema.KEY_COLUMN_USAGE
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seating_record'
+                 AND COLUMN_NAME = 'snapshot_hash' AND REFERENCED_TABLE_NAME = 'seating_snapshot');
+SET @sql = IF(@has_fk = 0,
+              'ALTER TABLE seating_record ADD CONSTRAINT fk_seating_record_snapshot FOREIGN KEY (snapshot_hash) REFERENCES seating_snapshot(content_hash)',
+              'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 5. 释放旧列占用的空间
+OPTIMIZE TABLE seating_record;
@@ -0,0 +1,23 @@
+-- 分组类型迁移：为 student_group 增加显式的 group_type 列，取代按名称/描述中的关键字推断“需要分开”
+-- 只需在已有数据库上执行一次（新建的数据库直接使用 seating.sql）；若已以 ddl-auto=update 启动过，加列会被跳过
+
+USE seating;
+
+-- 1. 新增分组类型列，已有分组默认坐在一起
+SET @has_type = (SELECT COUNT(*) FROM information_schema.COLUMNS
+                 WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'student_group' AND COLUMN_NAME = 'group_type');
+SET @sql = IF(@has_type = 0,
+              'ALTER TABLE student_group ADD COLUMN group_type VARCHAR(20) NOT NULL DEFAULT ''TOGETHER'' COMMENT ''分组类型：TOGETHER 需要坐在一起，APART 需要分开'' AFTER description',
+              'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. 沿用旧的推断规则一次性标记已有分组：名称或描述中包含“分开/隔开/分离”的视为需要分开
+--    之后分组类型只由 group_type 决定，修改名称或描述不再改变排座方式
+UPDATE student_group
+SET group_type = 'APART'
+WHERE group_type = 'TOGETHER'
+  AND (CONCAT(IFNULL(name, ''), IFNULL(description, '')) LIKE '%分开%'
+       OR CONCAT(IFNULL(name, ''), IFNULL(description, '')) LIKE '%隔开%'
+       OR CONCAT(IFNULL(name, ''), IFNULL(description, '')) LIKE '%分离%');
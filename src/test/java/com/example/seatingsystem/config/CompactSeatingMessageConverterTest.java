@@ -0,0 +1,226 @@
+package com.example.seatingsystem.config;
+
+import com.example.seatingsystem.model.OptimizedSeatingResult;
+import com.example.seatingsystem.model.SeatingCandidate;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSeatingMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompactSeatingMessageConverter converter = new CompactSeatingMessageConverter(objectMapper);
+
+    @Test
+    void roundTripsResultWithEmptySeats() throws IOException {
+        SeatingResult result = result(2, 3, seat(2, 3, 7L, "张三", "男"), seat(1, 1, 5L, "李四", "女"));
+
+        JsonNode json = write(result, SeatingResult.class);
+
+        assertEquals(1, json.get("v").asInt());
+        assertEquals("[5,0,0,0,0,7]", json.get("seats").toString());
+        assertEquals("[\"李四\",\"女\"]", json.get("students").get("5").toString());
+        assertFalse(json.has("layout"));
+
+        SeatingResult read = read(json.toString());
+        assertEquals(2, read.getRows());
+        assertEquals(3, read.getCols());
+        assertEquals(2, read.getLayout().size());
+        assertSeat(read.getLayout().get(0), 1, 1, 5L, "李四", "女");
+        assertSeat(read.getLayout().get(1), 2, 3, 7L, "张三", "男");
+    }
+
+    @Test
+    void roundTripsEmptyRoom() throws IOException {
+        JsonNode json = write(result(0, 0), SeatingResult.class);
+
+        assertEquals(0, json.get("seats").size());
+        assertEquals(0, json.get("students").size());
+
+        SeatingResult read = read(json.toString());
+        assertEquals(0, read.getRows());
+        assertEquals(0, read.getCols());
+        assertTrue(read.getLayout().isEmpty());
+    }
+
+    @Test
+    void readsAllEmptySeatsAsEmptyLayout() throws IOException {
+        SeatingResult read = read("{\"v\":1,\"rows\":2,\"cols\":2,\"seats\":[0,0,0,0],\"students\":{}}");
+
+        assertEquals(2, read.getRows());
+        assertTrue(read.getLayout().isEmpty());
+    }
+
+    @Test
+    void readsSeatWithoutStudentEntry() throws IOException {
+        SeatingResult read = read("{\"v\":1,\"rows\":1,\"cols\":2,\"seats\":[0,9]}");
+
+        assertSeat(read.getLayout().get(0), 1, 2, 9L, null, null);
+    }
+
+    @Test
+    void writesSubclassFields() throws IOException {
+        SeatingCandidate candidate = new SeatingCandidate();
+        candidate.setRows(1);
+        candidate.setCols(1);
+        candidate.setLayout(new ArrayList<>(List.of(seat(1, 1, 3L, "王五", "男"))));
+        candidate.setSeed(Long.MAX_VALUE);
+        OptimizedSeatingResult optimized = new OptimizedSeatingResult();
+        optimized.setRows(1);
+        optimized.setCols(2);
+        optimized.setLayout(new ArrayList<>());
+        optimized.setScore(1.5);
+        optimized.setIterations(42);
+
+        JsonNode candidateJson = write(candidate, SeatingCandidate.class);
+        JsonNode optimizedJson = write(optimized, OptimizedSeatingResult.class);
+
+        assertEquals(String.valueOf(Long.MAX_VALUE), candidateJson.get("seed").asText());
+        assertTrue(candidateJson.get("seed").isTextual());
+        assertEquals(1.5, optimizedJson.get("score").asDouble());
+        assertEquals(42, optimizedJson.get("iterations").asLong());
+        assertEquals("[0,0]", optimizedJson.get("seats").toString());
+
+        // 读取时只还原排座本身，子类字段被忽略
+        SeatingResult read = read(candidateJson.toString());
+        assertEquals(SeatingResult.class, read.getClass());
+        assertSeat(read.getLayout().get(0), 1, 1, 3L, "王五", "男");
+    }
+
+    @Test
+    void rejectsWrongVersion() {
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":2,\"rows\":1,\"cols\":1,\"seats\":[0],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"rows\":1,\"cols\":1,\"seats\":[0],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class, () -> read("[]"));
+    }
+
+    @Test
+    void rejectsSeatCountMismatch() {
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":2,\"cols\":2,\"seats\":[0,0,0],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":1,\"cols\":1,\"seats\":[0,0],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":-1,\"cols\":-1,\"seats\":[0],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":1,\"cols\":1,\"students\":{}}"));
+        // 行列数超出上限时不计算乘积（50000 × 50000 会溢出为负数）
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":50000,\"cols\":50000,\"seats\":[],\"students\":{}}"));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"v\":1,\"rows\":101,\"cols\":0,\"seats\":[],\"students\":{}}"));
+    }
+
+    @Test
+    void writesCandidateListAsArray() throws IOException {
+        SeatingCandidate first = new SeatingCandidate();
+        first.setRows(1);
+        first.setCols(2);
+        first.setLayout(new ArrayList<>(List.of(seat(1, 2, 1L, "甲", "男"))));
+        first.setSeed(1L);
+        SeatingCandidate second = new SeatingCandidate();
+        second.setRows(1);
+        second.setCols(2);
+        second.setLayout(new ArrayList<>(List.of(seat(1, 1, 1L, "甲", "男"))));
+        second.setSeed(2L);
+
+        JsonNode json = write(List.of(first, second), candidateListType());
+
+        assertTrue(json.isArray());
+        assertEquals(2, json.size());
+        assertEquals("[0,1]", json.get(0).get("seats").toString());
+        assertEquals("1", json.get(0).get("seed").asText());
+        assertEquals("[1,0]", json.get(1).get("seats").toString());
+        assertEquals("2", json.get(1).get("seed").asText());
+    }
+
+    @Test
+    void canWriteSeatingResultsAndCandidateLists() {
+        MediaType compact = CompactSeatingMessageConverter.MEDIA_TYPE;
+
+        assertTrue(converter.canWrite(SeatingResult.class, SeatingResult.class, compact));
+        assertTrue(converter.canWrite(OptimizedSeatingResult.class, OptimizedSeatingResult.class, compact));
+        assertTrue(converter.canWrite(candidateListType(), List.class, compact));
+        assertFalse(converter.canWrite(candidateListType(), List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, String.class).getType(), List.class, compact));
+        assertFalse(converter.canWrite(String.class, String.class, compact));
+
+        assertTrue(converter.canRead(SeatingResult.class, null, compact));
+        assertFalse(converter.canRead(SeatingCandidate.class, null, compact));
+        assertFalse(converter.canRead(candidateListType(), null, compact));
+    }
+
+    @Test
+    void detectsRequestedMediaType() {
+        assertTrue(CompactSeatingMessageConverter.isRequested("application/json, " + CompactSeatingMessageConverter.MEDIA_TYPE_VALUE));
+        assertFalse(CompactSeatingMessageConverter.isRequested("application/json"));
+        assertFalse(CompactSeatingMessageConverter.isRequested(null));
+        assertFalse(CompactSeatingMessageConverter.isRequested("not a media type;;"));
+    }
+
+    private JsonNode write(Object value, Type type) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, CompactSeatingMessageConverter.MEDIA_TYPE, output);
+        return objectMapper.readTree(output.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    private SeatingResult read(String body) throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8));
+        return (SeatingResult) converter.read(SeatingResult.class, null, input);
+    }
+
+    private static Type candidateListType() {
+        return ResolvableType.forClassWithGenerics(List.class, SeatingCandidate.class).getType();
+    }
+
+    private static SeatingResult result(int rows, int cols, SeatingPosition... seats) {
+        SeatingResult result = new SeatingResult();
+        result.setRows(rows);
+        result.setCols(cols);
+        result.setLayout(new ArrayList<>(List.of(seats)));
+        return result;
+    }
+
+    private static SeatingPosition seat(int row, int col, Long studentId, String name, String gender) {
+        SeatingPosition position = new SeatingPosition();
+        position.setRow(row);
+        position.setCol(col);
+        position.setStudentId(studentId);
+        position.setStudentName(name);
+        position.setGender(gender);
+        return position;
+    }
+
+    private static void assertSeat(SeatingPosition position, int row, int col, Long studentId, String name, String gender) {
+        assertEquals(row, position.getRow());
+        assertEquals(col, position.getCol());
+        assertEquals(studentId, position.getStudentId());
+        if (name == null) {
+            assertNull(position.getStudentName());
+        } else {
+            assertEquals(name, position.getStudentName());
+        }
+        assertEquals(gender, position.getGender());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.seatingsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatGridTest {
+
+    @Test
+    void indexOfMapsSeatsRowMajorAndRejectsOutOfRange() {
+        SeatGrid grid = new SeatGrid(3, 4);
+
+        assertEquals(0, grid.indexOf(1, 1));
+        assertEquals(3, grid.indexOf(1, 4));
+        assertEquals(4, grid.indexOf(2, 1));
+        assertEquals(11, grid.indexOf(3, 4));
+        assertEquals(-1, grid.indexOf(0, 1));
+        assertEquals(-1, grid.indexOf(1, 0));
+        assertEquals(-1, grid.indexOf(4, 1));
+        assertEquals(-1, grid.indexOf(1, 5));
+        assertNull(grid.get(4, 5));
+    }
+
+    @Test
+    void emptyGridHasNoSeats() {
+        SeatGrid grid = new SeatGrid(0, 0);
+
+        assertEquals(-1, grid.indexOf(1, 1));
+        assertTrue(grid.toLayout().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SeatGrid(-1, 2));
+    }
+
+    @Test
+    void rejectsDimensionsAboveLayoutLimit() {
+        int max = SeatLayout.MAX_DIMENSION;
+
+        assertEquals(max * max - 1, new SeatGrid(max, max).indexOf(max, max));
+        assertThrows(IllegalArgumentException.class, () -> new SeatGrid(max + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SeatGrid(30000, 30000));
+        assertThrows(IllegalArgumentException.class, () -> new SeatGrid(50000, 50000));
+
+        SeatingResult result = new SeatingResult();
+        result.setRows(50000);
+        result.setCols(50000);
+        assertThrows(IllegalArgumentException.class, result::grid);
+    }
+
+    @Test
+    void placeRejectsOccupiedSeat() {
+        SeatGrid grid = new SeatGrid(2, 2);
+        SeatingPosition first = seat(1, 2, 1L);
+        grid.place(first);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> grid.place(seat(1, 2, 2L)));
+
+        assertEquals("座位 (1-2) 被重复分配。", e.getMessage());
+        assertSame(first, grid.get(1, 2));
+        assertNull(grid.findByStudent(2L));
+        assertEquals(1, grid.getOccupiedCount());
+    }
+
+    @Test
+    void placeRejectsDuplicateStudent() {
+        SeatGrid grid = new SeatGrid(2, 2);
+        grid.place(seat(1, 1, 1L));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> grid.place(seat(2, 2, 1L)));
+
+        assertEquals("学生 学生1 被分配到了多个座位。", e.getMessage());
+        assertNull(grid.get(2, 2));
+        assertEquals(1, grid.findByStudent(1L).getRow());
+    }
+
+    @Test
+    void placeRejectsOutOfRangeSeat() {
+        SeatGrid grid = new SeatGrid(2, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> grid.place(seat(3, 1, 1L)));
+        assertThrows(IllegalArgumentException.class, () -> grid.place(seat(1, 0, 1L)));
+        assertEquals(0, grid.getOccupiedCount());
+    }
+
+    @Test
+    void fromSkipsEmptySeatsAndValidates() {
+        SeatingResult result = new SeatingResult();
+        result.setRows(2);
+        result.setCols(2);
+        result.setLayout(new ArrayList<>(List.of(seat(1, 1, 1L), seat(1, 2, null), seat(2, 2, 1L))));
+
+        assertThrows(IllegalArgumentException.class, () -> SeatGrid.from(result));
+
+        result.setLayout(new ArrayList<>(List.of(seat(1, 1, 1L), seat(1, 2, null))));
+        assertEquals(1, SeatGrid.from(result).getOccupiedCount());
+    }
+
+    @Test
+    void toLayoutReturnsSeatsInRowColumnOrder() {
+        SeatGrid grid = new SeatGrid(3, 3);
+        grid.place(seat(3, 1, 5L));
+        grid.place(seat(1, 3, 2L));
+        grid.place(seat(2, 2, 9L));
+        grid.place(seat(1, 1, 7L));
+
+        List<SeatingPosition> layout = grid.toLayout();
+
+        assertEquals(List.of(7L, 2L, 9L, 5L), layout.stream().map(SeatingPosition::getStudentId).toList());
+        SeatingResult result = grid.toResult();
+        assertEquals(3, result.getRows());
+        assertEquals(3, result.getCols());
+        assertEquals(4, result.getLayout().size());
+    }
+
+    @Test
+    void removeFreesSeatAndStudent() {
+        SeatGrid grid = new SeatGrid(2, 2);
+        SeatingPosition first = seat(1, 1, 1L);
+        grid.place(first);
+
+        assertSame(first, grid.remove(1, 1));
+        assertNull(grid.get(1, 1));
+        assertNull(grid.findByStudent(1L));
+        assertEquals(0, grid.getOccupiedCount());
+        assertNull(grid.remove(1, 1));
+        assertNull(grid.remove(3, 3));
+
+        grid.place(seat(2, 2, 1L)); // 移除后同一学生可以重新入座
+        assertEquals(2, grid.findByStudent(1L).getRow());
+    }
+
+    @Test
+    void changesFromReportsChangedSeatsInOrder() {
+        SeatGrid before = new SeatGrid(2, 2);
+        before.place(seat(1, 1, 1L));
+        before.place(seat(1, 2, 2L));
+        before.place(seat(2, 2, 3L));
+        SeatGrid after = new SeatGrid(2, 2);
+        after.place(seat(1, 1, 1L));
+        after.place(seat(2, 1, 2L));
+        after.place(seat(2, 2, 4L));
+
+        List<SeatingPosition> changes = after.changesFrom(before);
+
+        assertEquals(3, changes.size());
+        assertEquals(List.of("1-2:null", "2-1:2", "2-2:4"), changes.stream()
+                .map(change -> change.getRow() + "-" + change.getCol() + ":" + change.getStudentId()).toList());
+        assertEquals("学生2", changes.get(1).getStudentName());
+        assertNull(changes.get(0).getStudentName());
+        assertTrue(after.changesFrom(after).isEmpty());
+    }
+
+    @Test
+    void changesFromRejectsDifferentSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SeatGrid(2, 2).changesFrom(new SeatGrid(2, 3)));
+    }
+
+    static SeatingPosition seat(int row, int col, Long studentId) {
+        SeatingPosition position = new SeatingPosition();
+        position.setRow(row);
+        position.setCol(col);
+        position.setStudentId(studentId);
+        position.setStudentName(studentId == null ? null : "学生" + studentId);
+        return position;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.seatingsystem.repository;
+
+import com.example.seatingsystem.entity.Classroom;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用 application.properties 中的 JPA / 二级缓存配置启动 Hibernate（MySQL 模式的内存 H2 代替 MySQL），
+ * 确保 ehcache.xml 能被加载、各实体区域都已配置并且生效
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 每次仓库调用单独提交，READ_WRITE 区域才会写入缓存
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClassroomRepository classroomRepository;
+
+    @Test
+    void entityRegionsAreConfigured() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        assertTrue(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertTrue(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        for (String region : new String[]{"user", "classroom", "student"}) {
+            assertNotNull(sessionFactory.getCache().getRegion(region), region);
+        }
+    }
+
+    @Test
+    void classroomIsReadFromCache() {
+        Classroom classroom = new Classroom();
+        classroom.setTeacherId(1L);
+        classroom.setName("一班");
+        Long classId = classroomRepository.save(classroom).getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Classroom.class, classId);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        classroomRepository.findById(classId).orElseThrow(); // 未命中，从数据库加载并放入缓存
+        classroomRepository.findById(classId).orElseThrow();
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("classroom").getHitCount());
+        assertTrue(sessionFactory.getCache().containsEntity(Classroom.class, classId));
+        classroomRepository.deleteById(classId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.seatingsystem.service.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RosterExcelReaderTest {
+
+    private final RosterExcelReader reader = new RosterExcelReader();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsNumericAndTextStudentNumbersWithAllDigits() throws Exception {
+        File file = workbook(sheet -> {
+            header(sheet);
+            Row numeric = sheet.createRow(1);
+            numeric.createCell(0).setCellValue(202301000001d); // 12 位数字学号，"常规"格式下 Excel 显示为 2.02301E+11
+            numeric.createCell(1).setCellValue("张三");
+            numeric.createCell(2).setCellValue("男");
+            numeric.createCell(3).setCellValue(3.5);
+            Row text = sheet.createRow(2);
+            text.createCell(0).setCellValue("S0002");
+            text.createCell(1).setCellValue("李四");
+            text.createCell(2).setCellValue("女");
+            Row small = sheet.createRow(3);
+            small.createCell(0).setCellValue(7d);
+            small.createCell(1).setCellValue("王五");
+            Row longNumber = sheet.createRow(4);
+            longNumber.createCell(0).setCellValue(12345678901234d);
+            longNumber.createCell(1).setCellValue("赵六");
+        });
+
+        List<RosterRow> rows = read(file);
+
+        assertEquals(4, rows.size());
+        assertRow(rows.get(0), 2, "202301000001", "张三", "男", "3.5");
+        assertRow(rows.get(1), 3, "S0002", "李四", "女", "");
+        assertRow(rows.get(2), 4, "7", "王五", "", "");
+        assertRow(rows.get(3), 5, "12345678901234", "赵六", "", "");
+    }
+
+    @Test
+    void skipsHeaderAndRowsWithoutStudentNoCell() throws Exception {
+        File file = workbook(sheet -> {
+            header(sheet);
+            Row noStudentNo = sheet.createRow(1);
+            noStudentNo.createCell(1).setCellValue("无学号"); // 学号列没有单元格：跳过
+            Row emptyStudentNo = sheet.createRow(2);
+            emptyStudentNo.createCell(0).setCellValue(""); // 学号为空字符串：交给导入逻辑报错
+            emptyStudentNo.createCell(1).setCellValue("空学号");
+            sheet.createRow(4).createCell(0).setCellValue(1001d);
+        });
+
+        List<RosterRow> rows = read(file);
+
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), 3, "", "空学号", "", "");
+        assertRow(rows.get(1), 5, "1001", "", "", "");
+    }
+
+    private List<RosterRow> read(File file) throws Exception {
+        List<RosterRow> rows = new ArrayList<>();
+        assertEquals(reader.read(file, rows::add), rows.size());
+        return rows;
+    }
+
+    private File workbook(SheetWriter writer) throws Exception {
+        Path path = tempDir.resolve("roster.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            writer.write(workbook.createSheet("名单"));
+            workbook.write(out);
+        }
+        return path.toFile();
+    }
+
+    private static void header(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        String[] titles = {"学号", "姓名", "性别", "自定义信息"};
+        for (int i = 0; i < titles.length; i++) {
+            header.createCell(i).setCellValue(titles[i]);
+        }
+    }
+
+    private static void assertRow(RosterRow row, int rowNumber, String studentNo, String name, String gender, String customInfo) {
+        assertEquals(rowNumber, row.getRowNumber());
+        assertEquals(studentNo, row.getStudentNo());
+        assertEquals(name, row.getName());
+        assertEquals(gender, row.getGender());
+        assertEquals(customInfo, row.getCustomInfo());
+    }
+
+    private interface SheetWriter {
+        void write(Sheet sheet);
+    }
+}
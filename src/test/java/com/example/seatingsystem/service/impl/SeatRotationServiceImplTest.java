@@ -0,0 +1,194 @@
+package com.example.seatingsystem.service.impl;
+
+import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import com.example.seatingsystem.model.RotationReport;
+import com.example.seatingsystem.model.RotationReport.ClassRotation;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.repository.ClassroomRepository;
+import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.service.SeatRotationService;
+import com.example.seatingsystem.service.SeatingArrangementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatRotationServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final SeatingRecordRepository seatingRecordRepository = mock(SeatingRecordRepository.class);
+    private final SeatingArrangementService seatingArrangementService = mock(SeatingArrangementService.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SeatRotationService> self = mock(ObjectProvider.class);
+    private final List<SeatRotationServiceImpl> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        services.forEach(SeatRotationServiceImpl::shutdown);
+    }
+
+    @Test
+    void rotateWrapsNegativeShifts() {
+        SeatingResult next = service(1, 1).rotate(result(3, 4, seat(1, 1, 1L), seat(3, 4, 2L)), -1, -1);
+
+        assertSeat(next.getLayout().get(0), 3, 4, 1L);
+        assertSeat(next.getLayout().get(1), 2, 3, 2L);
+    }
+
+    @Test
+    void rotateWrapsShiftsLargerThanRoom() {
+        SeatingResult current = result(3, 4, seat(1, 1, 1L), seat(3, 4, 2L));
+
+        SeatingResult large = service(1, 1).rotate(current, 7, 9);
+        SeatingResult small = service(1, 1).rotate(current, 1, 1);
+
+        assertSeat(large.getLayout().get(0), 2, 2, 1L);
+        assertSeat(large.getLayout().get(1), 1, 1, 2L);
+        assertEquals(positions(small), positions(large));
+    }
+
+    @Test
+    void rotateKeepsEmptySeatsAndSizeAndHandlesMissingLayout() {
+        SeatingResult next = service(1, 1).rotate(result(2, 3, seat(1, 1, 1L), seat(1, 2, null)), 1, 0);
+
+        assertEquals(2, next.getRows());
+        assertEquals(3, next.getCols());
+        assertSeat(next.getLayout().get(0), 2, 1, 1L);
+        assertSeat(next.getLayout().get(1), 2, 2, null);
+
+        SeatingResult empty = new SeatingResult();
+        empty.setRows(2);
+        empty.setCols(3);
+        assertTrue(service(1, 1).rotate(empty, 1, 1).getLayout().isEmpty());
+    }
+
+    @Test
+    void countMovedStudentsIgnoresEmptySeatsInPartlyFilledRoom() {
+        SeatRotationServiceImpl service = service(1, 0);
+        SeatingResult current = result(3, 3, seat(1, 1, 1L), seat(1, 2, null), seat(2, 2, 2L), seat(3, 3, null));
+
+        assertEquals(2, service.countMovedStudents(current, service.rotate(current, 1, 0)));
+        assertEquals(0, service.countMovedStudents(current, service.rotate(current, 3, -3)));
+    }
+
+    @Test
+    void rotateAllSkipsClassWhenNobodyMoves() throws Exception {
+        stubClass(2, 2, result(2, 2, seat(1, 1, 1L), seat(2, 2, 2L)));
+
+        RotationReport report = service(2, -2).rotateAll(false);
+
+        ClassRotation rotation = report.getClasses().get(0);
+        assertEquals(RotationReport.SKIPPED, rotation.getStatus());
+        assertEquals("轮换后座位无变化", rotation.getMessage());
+        assertEquals(1, report.getSkipped());
+        verify(seatingArrangementService, never()).saveArrangement(anyLong(), any(), anyString());
+    }
+
+    @Test
+    void rotateAllReportsMovedStudentsInDryRunWithoutSaving() throws Exception {
+        stubClass(2, 2, result(2, 2, seat(1, 1, 1L), seat(1, 2, null), seat(2, 1, 2L)));
+
+        RotationReport report = service(1, 0).rotateAll(true);
+
+        ClassRotation rotation = report.getClasses().get(0);
+        assertEquals(RotationReport.WOULD_ROTATE, rotation.getStatus());
+        assertEquals(2, rotation.getMovedStudents());
+        verify(seatingArrangementService, never()).saveArrangement(anyLong(), any(), anyString());
+    }
+
+    @Test
+    void rotateAllSkipsClassWhenLayoutChanged() throws Exception {
+        stubClass(3, 3, result(2, 2, seat(1, 1, 1L)));
+
+        RotationReport report = service(1, 1).rotateAll(false);
+
+        assertEquals("座位布局已变更，请先手动排座", report.getClasses().get(0).getMessage());
+    }
+
+    @Test
+    void scheduledRotationGoesThroughProxy() {
+        SeatRotationService proxy = mock(SeatRotationService.class);
+        when(self.getObject()).thenReturn(proxy);
+
+        service(1, 1).scheduledRotation();
+
+        verify(proxy).rotateAll(false);
+        verify(classroomRepository, never()).count();
+    }
+
+    private SeatRotationServiceImpl service(int rowShift, int colShift) {
+        SeatRotationServiceImpl service = new SeatRotationServiceImpl(classroomRepository, seatingRecordRepository,
+                seatingArrangementService, objectMapper, self, rowShift, colShift, 200, 1, false);
+        services.add(service);
+        return service;
+    }
+
+    private void stubClass(int rows, int cols, SeatingResult latest) throws Exception {
+        Classroom classroom = new Classroom();
+        classroom.setId(1L);
+        classroom.setName("一班");
+        classroom.setSeatLayout(SeatLayout.of(rows, cols));
+        SeatingRecord record = new SeatingRecord();
+        record.setSnapshot(new SeatingSnapshot(objectMapper.writeValueAsString(latest)));
+
+        when(classroomRepository.count()).thenReturn(1L);
+        when(classroomRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(classroom));
+        when(seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(1L)).thenReturn(Optional.of(record));
+    }
+
+    private static SeatingResult result(int rows, int cols, SeatingPosition... seats) {
+        SeatingResult result = new SeatingResult();
+        result.setRows(rows);
+        result.setCols(cols);
+        result.setLayout(new ArrayList<>(List.of(seats)));
+        return result;
+    }
+
+    private static SeatingPosition seat(int row, int col, Long studentId) {
+        SeatingPosition position = new SeatingPosition();
+        position.setRow(row);
+        position.setCol(col);
+        position.setStudentId(studentId);
+        position.setStudentName(studentId == null ? null : "学生" + studentId);
+        return position;
+    }
+
+    private static void assertSeat(SeatingPosition position, int row, int col, Long studentId) {
+        assertEquals(row, position.getRow());
+        assertEquals(col, position.getCol());
+        if (studentId == null) {
+            assertNull(position.getStudentId());
+        } else {
+            assertEquals(studentId, position.getStudentId());
+        }
+    }
+
+    private static List<String> positions(SeatingResult result) {
+        List<String> positions = new ArrayList<>();
+        for (SeatingPosition position : result.getLayout()) {
+            positions.add(position.getRow() + "," + position.getCol() + "," + position.getStudentId());
+        }
+        return positions;
+    }
+}
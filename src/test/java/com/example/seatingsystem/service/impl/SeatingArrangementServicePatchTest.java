@@ -0,0 +1,339 @@
+package com.example.seatingsystem.service.impl;
+
+import com.example.seatingsystem.controller.SeatingController;
+import com.example.seatingsystem.entity.Classroom;
+import com.example.seatingsystem.entity.SeatingRecord;
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import com.example.seatingsystem.entity.Student;
+import com.example.seatingsystem.model.ArrangementDiff;
+import com.example.seatingsystem.model.SeatLayout;
+import com.example.seatingsystem.model.SeatPatchOperation;
+import com.example.seatingsystem.model.SeatPatchRequest;
+import com.example.seatingsystem.model.SeatingPosition;
+import com.example.seatingsystem.model.SeatingResult;
+import com.example.seatingsystem.repository.ClassroomRepository;
+import com.example.seatingsystem.repository.SeatingRecordRepository;
+import com.example.seatingsystem.repository.SeatingSnapshotRepository;
+import com.example.seatingsystem.repository.StudentGroupRepository;
+import com.example.seatingsystem.service.SeatStatService;
+import com.example.seatingsystem.service.StudentService;
+import com.example.seatingsystem.service.cache.ArrangementCache;
+import com.example.seatingsystem.service.metrics.SeatingMetrics;
+import com.example.seatingsystem.service.optimizer.SeatingOptimizer;
+import com.example.seatingsystem.service.pdf.SeatingPdfFonts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatingArrangementServicePatchTest {
+
+    private static final Long CLASS_ID = 1L;
+    private static final Long BASE_RECORD_ID = 10L;
+    private static final Long NEW_RECORD_ID = 11L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final SeatingRecordRepository seatingRecordRepository = mock(SeatingRecordRepository.class);
+    private final SeatingSnapshotRepository seatingSnapshotRepository = mock(SeatingSnapshotRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StudentService studentService = mock(StudentService.class);
+    private SeatingArrangementServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Classroom classroom = new Classroom();
+        classroom.setId(CLASS_ID);
+        classroom.setSeatLayout(SeatLayout.of(2, 3));
+        when(classroomRepository.findByIdForUpdate(CLASS_ID)).thenReturn(Optional.of(classroom));
+        when(classroomRepository.findById(CLASS_ID)).thenReturn(Optional.of(classroom));
+
+        // 当前排座：(1-1) 学生1，(1-2) 学生2，(2-3) 学生3，其余为空座
+        SeatingResult current = new SeatingResult();
+        current.setRows(2);
+        current.setCols(3);
+        current.setLayout(new ArrayList<>(List.of(seat(1, 1, 1L, "旧名1"), seat(1, 2, 2L, "学生2"), seat(2, 3, 3L, "学生3"))));
+        SeatingRecord latest = new SeatingRecord();
+        latest.setId(BASE_RECORD_ID);
+        latest.setClassId(CLASS_ID);
+        latest.setSnapshot(new SeatingSnapshot(objectMapper.writeValueAsString(current)));
+        when(seatingRecordRepository.findFirstByClassIdOrderByCreateTimeDescIdDesc(CLASS_ID)).thenReturn(Optional.of(latest));
+        when(seatingRecordRepository.save(any(SeatingRecord.class))).thenAnswer(invocation -> {
+            SeatingRecord record = invocation.getArgument(0);
+            record.setId(NEW_RECORD_ID);
+            return record;
+        });
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(1);
+
+        // 名单中学生1已改名，学生4尚未安排座位
+        when(studentService.getActiveStudentsByClassId(CLASS_ID)).thenAnswer(invocation -> new ArrayList<>(List.of(
+                student(1L, "学生1", "男"), student(2L, "学生2", "女"), student(3L, "学生3", "男"), student(4L, "学生4", "女"))));
+
+        service = new SeatingArrangementServiceImpl(
+                classroomRepository,
+                seatingRecordRepository,
+                seatingSnapshotRepository,
+                jdbcTemplate,
+                studentService,
+                objectMapper,
+                mock(StudentGroupRepository.class),
+                mock(SeatingOptimizer.class),
+                Collections.emptyList(),
+                mock(SeatingPdfFonts.class),
+                new ArrangementCache(1, 0),
+                new SeatingMetrics(new SimpleMeterRegistry()),
+                mock(SeatStatService.class),
+                event -> { });
+    }
+
+    @Test
+    void moveOntoOccupiedSeatIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(move(1, 1, 1, 2)));
+
+        assertEquals("第 1 个调整的目标座位 (1-2) 已有学生，请使用交换。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void moveFromEmptySeatIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(move(2, 1, 2, 2)));
+
+        assertEquals("第 1 个调整的起始座位 (2-1) 是空座。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void swapWithEmptySeatMovesStudent() {
+        ArrangementDiff diff = patch(swap(1, 2, 2, 2));
+
+        assertEquals(2, diff.getChanges().size());
+        assertChange(diff.getChanges().get(0), 1, 2, null);
+        assertChange(diff.getChanges().get(1), 2, 2, 2L);
+    }
+
+    @Test
+    void clearOnEmptySeatIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(clear(2, 1)));
+
+        assertEquals("第 1 个调整的座位 (2-1) 已是空座。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void placeOfAlreadySeatedStudentIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(place(2, 1, 3L)));
+
+        assertEquals("第 1 个调整的学生已经有座位。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void placeOnOccupiedSeatIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(place(1, 1, 4L)));
+
+        assertEquals("第 1 个调整的座位 (1-1) 已有学生。", e.getMessage());
+    }
+
+    @Test
+    void outOfRangeSeatsAreRejected() {
+        RuntimeException source = assertThrows(RuntimeException.class, () -> patch(clear(3, 1)));
+        RuntimeException target = assertThrows(RuntimeException.class, () -> patch(swap(1, 1, 1, 4)));
+        RuntimeException zero = assertThrows(RuntimeException.class, () -> patch(place(0, 1, 4L)));
+
+        assertEquals("第 1 个调整的座位 (3-1) 超出布局范围。", source.getMessage());
+        assertEquals("第 1 个调整的座位 (1-4) 超出布局范围。", target.getMessage());
+        assertEquals("第 1 个调整的座位 (0-1) 超出布局范围。", zero.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void studentNotOnRosterIsRejected() {
+        RuntimeException unknown = assertThrows(RuntimeException.class, () -> patch(place(2, 1, 99L)));
+        assertEquals("第 1 个调整涉及的学生（ID: 99）不在当前名单中。", unknown.getMessage());
+
+        // 已在座位上但之后被停用的学生也不能被移动
+        when(studentService.getActiveStudentsByClassId(CLASS_ID)).thenAnswer(invocation -> new ArrayList<>(List.of(
+                student(1L, "学生1", "男"), student(2L, "学生2", "女"))));
+        RuntimeException removed = assertThrows(RuntimeException.class, () -> patch(move(2, 3, 2, 1)));
+        assertEquals("第 1 个调整涉及的学生（ID: 3）不在当前名单中。", removed.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void failingOperationRollsBackWholeBatch() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> patch(swap(1, 1, 1, 2), clear(2, 3), clear(2, 3)));
+
+        assertEquals("第 3 个调整的座位 (2-3) 已是空座。", e.getMessage());
+        assertNothingSaved();
+
+        // 前两个操作没有留在任何共享状态中：重新提交同一基础记录上的合法批次仍按原排座计算
+        ArrangementDiff diff = patch(clear(2, 3));
+        assertEquals(1, diff.getChanges().size());
+        assertChange(diff.getChanges().get(0), 2, 3, null);
+    }
+
+    @Test
+    void staleBaseRecordIsAConflict() {
+        SeatPatchRequest request = request(clear(1, 1));
+        request.setBaseRecordId(BASE_RECORD_ID - 1);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> service.patchArrangement(CLASS_ID, request));
+        assertNothingSaved();
+
+        SeatingController controller = new SeatingController(service, null, null, null, 0);
+        ResponseEntity<?> response = controller.patchArrangement(CLASS_ID, request);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        request.setBaseRecordId(BASE_RECORD_ID);
+        request.getOperations().set(0, clear(2, 1));
+        assertEquals(HttpStatus.BAD_REQUEST, controller.patchArrangement(CLASS_ID, request).getStatusCode());
+    }
+
+    @Test
+    void diffContainsOnlyChangedSeatsWithRosterDetails() {
+        ArrangementDiff diff = patch(swap(1, 1, 2, 3), place(2, 1, 4L), clear(1, 2));
+
+        assertEquals(NEW_RECORD_ID, diff.getRecordId());
+        assertEquals(BASE_RECORD_ID, diff.getBaseRecordId());
+        assertEquals(2, diff.getRows());
+        assertEquals(3, diff.getCols());
+
+        List<SeatingPosition> changes = diff.getChanges();
+        assertEquals(4, changes.size());
+        assertChange(changes.get(0), 1, 1, 3L);
+        assertChange(changes.get(1), 1, 2, null);
+        assertChange(changes.get(2), 2, 1, 4L);
+        assertChange(changes.get(3), 2, 3, 1L);
+        assertEquals("学生1", changes.get(3).getStudentName()); // 按当前名单刷新姓名
+        assertEquals("女", changes.get(2).getGender());
+        assertNull(changes.get(1).getStudentName());
+
+        verify(seatingRecordRepository).save(any(SeatingRecord.class));
+        verify(jdbcTemplate).update(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void emptyOrUnknownOperationsAreRejected() {
+        assertThrows(RuntimeException.class, () -> patch());
+
+        SeatPatchOperation unknown = clear(1, 1);
+        unknown.setType("teleport");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(unknown));
+        assertTrue(e.getMessage().contains("teleport"));
+        assertNothingSaved();
+    }
+
+    @Test
+    void patchRejectsLayoutChangedSinceLatestRecord() {
+        Classroom resized = new Classroom();
+        resized.setId(CLASS_ID);
+        resized.setSeatLayout(SeatLayout.of(3, 3));
+        when(classroomRepository.findByIdForUpdate(CLASS_ID)).thenReturn(Optional.of(resized));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> patch(move(1, 1, 3, 3)));
+
+        assertEquals("班级座位布局已变更（当前 3 行 3 列），与最新排座（2 行 3 列）不一致，请先重新排座后再调整。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    @Test
+    void saveRejectsDimensionsDifferentFromLayout() {
+        SeatingResult oversized = new SeatingResult();
+        oversized.setRows(30000);
+        oversized.setCols(30000);
+        oversized.setLayout(new ArrayList<>());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.saveArrangement(CLASS_ID, oversized, "r"));
+
+        assertEquals("保存排座记录失败：排座的行列数与班级当前布局（2 行 3 列）不一致，请重新排座。", e.getMessage());
+        assertNothingSaved();
+    }
+
+    private ArrangementDiff patch(SeatPatchOperation... operations) {
+        return service.patchArrangement(CLASS_ID, request(operations));
+    }
+
+    private static SeatPatchRequest request(SeatPatchOperation... operations) {
+        SeatPatchRequest request = new SeatPatchRequest();
+        request.setBaseRecordId(BASE_RECORD_ID);
+        request.setOperations(new ArrayList<>(List.of(operations)));
+        return request;
+    }
+
+    private void assertNothingSaved() {
+        verify(seatingRecordRepository, never()).save(any(SeatingRecord.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(), any(), any());
+    }
+
+    private static void assertChange(SeatingPosition change, int row, int col, Long studentId) {
+        assertEquals(row, change.getRow());
+        assertEquals(col, change.getCol());
+        assertEquals(studentId, change.getStudentId());
+    }
+
+    private static SeatPatchOperation move(int row, int col, int toRow, int toCol) {
+        return operation(SeatPatchOperation.MOVE, row, col, toRow, toCol, null);
+    }
+
+    private static SeatPatchOperation swap(int row, int col, int toRow, int toCol) {
+        return operation(SeatPatchOperation.SWAP, row, col, toRow, toCol, null);
+    }
+
+    private static SeatPatchOperation clear(int row, int col) {
+        return operation(SeatPatchOperation.CLEAR, row, col, null, null, null);
+    }
+
+    private static SeatPatchOperation place(int row, int col, Long studentId) {
+        return operation(SeatPatchOperation.PLACE, row, col, null, null, studentId);
+    }
+
+    private static SeatPatchOperation operation(String type, int row, int col, Integer toRow, Integer toCol, Long studentId) {
+        SeatPatchOperation operation = new SeatPatchOperation();
+        operation.setType(type);
+        operation.setRow(row);
+        operation.setCol(col);
+        operation.setToRow(toRow);
+        operation.setToCol(toCol);
+        operation.setStudentId(studentId);
+        return operation;
+    }
+
+    private static SeatingPosition seat(int row, int col, Long studentId, String name) {
+        SeatingPosition position = new SeatingPosition();
+        position.setRow(row);
+        position.setCol(col);
+        position.setStudentId(studentId);
+        position.setStudentName(name);
+        return position;
+    }
+
+    private static Student student(Long id, String name, String gender) {
+        Student student = new Student();
+        student.setId(id);
+        student.setClassId(CLASS_ID);
+        student.setName(name);
+        student.setGender(gender);
+        return student;
+    }
+}
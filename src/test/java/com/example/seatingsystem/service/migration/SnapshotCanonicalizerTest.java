@@ -0,0 +1,126 @@
+package com.example.seatingsystem.service.migration;
+
+import com.example.seatingsystem.entity.SeatingSnapshot;
+import com.example.seatingsystem.model.SeatingResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 在 Hibernate 建出的表上（MySQL 模式的内存 H2）验证旧快照被重写为与 saveArrangement 相同的规范形式
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:canonicalize;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 迁移自己提交事务
+class SnapshotCanonicalizerTest {
+
+    // 旧版快照：包含空座位、座位未按行列排序
+    private static final String LEGACY = "{\"rows\":2,\"cols\":2,\"layout\":["
+            + "{\"row\":2,\"col\":1,\"studentId\":2,\"studentName\":\"乙\",\"gender\":\"女\"},"
+            + "{\"row\":1,\"col\":2,\"studentId\":null,\"studentName\":null,\"gender\":null},"
+            + "{\"row\":1,\"col\":1,\"studentId\":1,\"studentName\":\"甲\",\"gender\":\"男\"}]}";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SnapshotCanonicalizer canonicalizer;
+
+    @BeforeEach
+    void setUp() {
+        canonicalizer = new SnapshotCanonicalizer(jdbcTemplate, new TransactionTemplate(transactionManager),
+                objectMapper, false);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM seating_record");
+        jdbcTemplate.update("DELETE FROM seating_snapshot");
+    }
+
+    @Test
+    void rewritesLegacySnapshotAndRepointsRecords() throws Exception {
+        String legacyHash = insertSnapshot(LEGACY);
+        insertRecord(legacyHash);
+        insertRecord(legacyHash);
+
+        assertEquals(1, canonicalizer.canonicalizeAll());
+
+        String canonicalJson = canonical(LEGACY);
+        String canonicalHash = SeatingSnapshot.hashOf(canonicalJson);
+        assertEquals(List.of(canonicalHash), snapshotHashes());
+        assertEquals(canonicalJson, jdbcTemplate.queryForObject(
+                "SELECT layout_snapshot FROM seating_snapshot WHERE content_hash = ?", String.class, canonicalHash));
+        assertEquals(List.of(canonicalHash, canonicalHash), recordHashes());
+        assertEquals(0, canonicalizer.canonicalizeAll()); // 已是规范形式，再次执行不做修改
+    }
+
+    @Test
+    void mergesLegacySnapshotIntoExistingCanonicalSnapshot() throws Exception {
+        String canonicalHash = insertSnapshot(canonical(LEGACY)); // 迁移后按新方式保存过相同的排座
+        insertRecord(canonicalHash);
+        insertRecord(insertSnapshot(LEGACY));
+
+        assertEquals(1, canonicalizer.canonicalizeAll());
+
+        assertEquals(List.of(canonicalHash), snapshotHashes());
+        assertEquals(List.of(canonicalHash, canonicalHash), recordHashes());
+    }
+
+    @Test
+    void keepsSnapshotsThatCannotBeParsed() {
+        String brokenHash = insertSnapshot("{\"rows\":1,\"cols\":1,\"layout\":[{\"row\":3,\"col\":3,\"studentId\":1}]}");
+        insertRecord(brokenHash);
+
+        assertEquals(0, canonicalizer.canonicalizeAll());
+
+        assertEquals(List.of(brokenHash), snapshotHashes());
+        assertEquals(List.of(brokenHash), recordHashes());
+    }
+
+    private String canonical(String json) throws Exception {
+        return objectMapper.writeValueAsString(objectMapper.readValue(json, SeatingResult.class).grid().toResult());
+    }
+
+    private String insertSnapshot(String json) {
+        String hash = SeatingSnapshot.hashOf(json);
+        jdbcTemplate.update("INSERT INTO seating_snapshot (content_hash, layout_snapshot, create_time) VALUES (?, ?, NOW())",
+                hash, json);
+        return hash;
+    }
+
+    private void insertRecord(String hash) {
+        jdbcTemplate.update("INSERT INTO seating_record (class_id, record_name, snapshot_hash, create_time) VALUES (1, 'r', ?, NOW())",
+                hash);
+    }
+
+    private List<String> snapshotHashes() {
+        return jdbcTemplate.queryForList("SELECT content_hash FROM seating_snapshot", String.class);
+    }
+
+    private List<String> recordHashes() {
+        return jdbcTemplate.queryForList("SELECT snapshot_hash FROM seating_record ORDER BY id", String.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.seatingsystem.service.optimizer;
+
+import com.example.seatingsystem.entity.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 各约束的增量计分必须与交换前后整体打分之差一致
+ */
+class SeatingConstraintSwapDeltaTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final List<SeatingConstraint> constraints = List.of(new GroupTogetherConstraint(),
+            new GroupApartConstraint(), new GenderMixConstraint(), new FrontFillConstraint(), new FairRotationConstraint());
+    private final SeatingOptimizer optimizer = new SeatingOptimizer(20, 2, 2);
+
+    @AfterEach
+    void shutdown() {
+        optimizer.shutdown();
+    }
+
+    @Test
+    void swapDeltaMatchesFullRescoring() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 50; round++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(6);
+            SeatingProblem problem = problem(random, rows, cols, random.nextInt(rows * cols + 1));
+            int[] studentAtSeat = shuffledSeats(random, problem);
+            int[] seatOfStudent = seatOfStudent(studentAtSeat, problem.getStudentCount());
+
+            for (int i = 0; i < 40; i++) {
+                int a = random.nextInt(studentAtSeat.length);
+                int b = random.nextInt(studentAtSeat.length);
+                int[] seatsBefore = studentAtSeat.clone();
+                int[] studentsBefore = seatOfStudent.clone();
+                int[] swappedSeats = studentAtSeat.clone();
+                int[] swappedStudents = seatOfStudent.clone();
+                SeatingOptimizer.swap(swappedSeats, swappedStudents, a, b);
+
+                for (SeatingConstraint constraint : constraints) {
+                    double expected = constraint.penalty(problem, swappedSeats, swappedStudents)
+                            - constraint.penalty(problem, studentAtSeat, seatOfStudent);
+                    assertEquals(expected, constraint.swapDelta(problem, studentAtSeat, seatOfStudent, a, b), EPSILON,
+                            constraint.getClass().getSimpleName() + " " + rows + "x" + cols + " swap " + a + "<->" + b);
+                }
+                assertArrayEquals(seatsBefore, studentAtSeat);
+                assertArrayEquals(studentsBefore, seatOfStudent);
+
+                studentAtSeat = swappedSeats; // 沿交换后的分配继续检查
+                seatOfStudent = swappedStudents;
+            }
+        }
+    }
+
+    @Test
+    void optimizeReportsFullScoreOfReturnedSeats() {
+        SeatingProblem problem = problem(new SplittableRandom(7), 6, 7, 38);
+
+        OptimizationOutcome outcome = optimizer.optimize(problem, constraints, 20, 1L);
+
+        int[] studentAtSeat = outcome.getStudentAtSeat();
+        double score = 0;
+        for (SeatingConstraint constraint : constraints) {
+            score += constraint.penalty(problem, studentAtSeat, seatOfStudent(studentAtSeat, problem.getStudentCount()));
+        }
+        assertEquals(score, outcome.getScore(), EPSILON);
+    }
+
+    private static SeatingProblem problem(SplittableRandom random, int rows, int cols, int studentCount) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student();
+            student.setId((long) i + 1);
+            student.setGender(random.nextInt(5) == 0 ? null : random.nextBoolean() ? "男" : "女");
+            students.add(student);
+        }
+        double[][] shares = new double[studentCount][];
+        for (int i = 0; i < studentCount; i++) {
+            if (random.nextBoolean()) {
+                shares[i] = random.doubles(6).toArray();
+            }
+        }
+        return new SeatingProblem(rows, cols, students, groups(random, studentCount), groups(random, studentCount), shares);
+    }
+
+    // 随机分组，同一学生可以出现在多个分组中
+    private static int[][] groups(SplittableRandom random, int studentCount) {
+        if (studentCount < 2) {
+            return new int[0][];
+        }
+        int[][] groups = new int[random.nextInt(4)][];
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = random.ints(0, studentCount).distinct().limit(2 + random.nextInt(Math.min(3, studentCount - 1))).toArray();
+        }
+        return groups;
+    }
+
+    private static int[] shuffledSeats(SplittableRandom random, SeatingProblem problem) {
+        int[] studentAtSeat = new int[problem.getSeatCount()];
+        for (int seat = 0; seat < studentAtSeat.length; seat++) {
+            studentAtSeat[seat] = seat < problem.getStudentCount() ? seat : -1;
+        }
+        for (int i = studentAtSeat.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = studentAtSeat[i];
+            studentAtSeat[i] = studentAtSeat[j];
+            studentAtSeat[j] = tmp;
+        }
+        return studentAtSeat;
+    }
+
+    private static int[] seatOfStudent(int[] studentAtSeat, int studentCount) {
+        int[] seatOfStudent = new int[studentCount];
+        for (int seat = 0; seat < studentAtSeat.length; seat++) {
+            if (studentAtSeat[seat] >= 0) seatOfStudent[studentAtSeat[seat]] = seat;
+        }
+        return seatOfStudent;
+    }
+}